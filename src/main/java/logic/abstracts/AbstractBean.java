@@ -10,11 +10,16 @@ public abstract class AbstractBean {
     protected String project; //should be UPPERCASE
 
     protected AbstractBean(String outputFile, String dirPath, String projectName) throws InvalidInputException {
+        this(dirPath, projectName);
+        this.output = new File(outputFile);
+    }
+
+    protected AbstractBean(String dirPath, String projectName) throws InvalidInputException {
+        /*  for beans whose use case writes nothing: output is null */
         this.directory = new File(dirPath);
         if (!this.directory.exists()) {
             throw new InvalidInputException("Directory doesn't exist.");
         }
-        this.output = new File(outputFile);
         this.project = projectName.toUpperCase();
     }
 
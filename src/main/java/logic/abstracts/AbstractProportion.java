@@ -0,0 +1,60 @@
+package logic.abstracts;
+
+import logic.dataset_manager.BugTicket;
+import logic.dataset_manager.ProportionDataset;
+import logic.dataset_manager.Release;
+
+import java.util.List;
+
+public abstract class AbstractProportion {
+    /*  What the proportion algorithms share: P is the mean of (FV - IV) / (FV - OV) over some bugs whose affected
+        versions are known. The injected version of a bug without them is estimated as FV - P * (FV - OV).   */
+
+    protected Integer proportionP;
+    protected ProportionDataset dataset;
+
+    protected AbstractProportion(ProportionDataset d){
+        this.dataset = d;
+        this.proportionP = 0;
+    }
+
+    protected static double proportionOf(BugTicket b){
+        /*  b must have affected versions, and fixed version different from opening version  */
+        double numerator = (double) b.getFixedVersion().getIndex() - b.getInjectedVersion().getIndex();
+        double denominator = (double) b.getFixedVersion().getIndex() - b.getOpeningVersion().getIndex();
+        assert denominator != 0;
+        return numerator / denominator;
+    }
+
+    protected static boolean isProportionBug(BugTicket b){
+        /*  true if b can be used to compute P  */
+        return !b.getAffectedVersions().isEmpty() &&
+                !b.getFixedVersion().getIndex().equals(b.getOpeningVersion().getIndex()); //because of proportion denominator
+    }
+
+    protected void updateBugAV(BugTicket bug){
+        /*  estimates the affected versions of bug with the current P: they are [IV, FV)   */
+        int injectedVersionIndex;
+        int fixedVersionIndex;
+        int openingVersionIndex;
+        int i;
+        List<Release> affectedVersions;
+        fixedVersionIndex = bug.getFixedVersion().getIndex();
+        openingVersionIndex = bug.getOpeningVersion().getIndex();
+        injectedVersionIndex = fixedVersionIndex - this.proportionP * (fixedVersionIndex - openingVersionIndex);
+        if (injectedVersionIndex <= 0) //proportion computation returns an older realease than the firstone: impossible
+            injectedVersionIndex = 1;
+        for (i = injectedVersionIndex; i < fixedVersionIndex; i++) {
+            affectedVersions = bug.getAffectedVersions();
+            affectedVersions.add(this.dataset.getReleaseFromItsIndex(i));
+            bug.setAffectedVersions(affectedVersions);
+        }
+    }
+
+    protected void setDatasetBugginess() {
+        for (BugTicket b : this.dataset.getFixedBugs()) {
+            for (Release r : b.getAffectedVersions())
+                r.setAllFileBuggines(b.getTouchedFiles(), this.dataset.getFileManager(), r.getIndex());
+        }
+    }
+}
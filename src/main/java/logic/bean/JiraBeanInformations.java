@@ -1,13 +1,11 @@
 package logic.bean;
 
 import logic.dataset_manager.Commit;
+import logic.dataset_manager.JiraTicket;
 import logic.dataset_manager.Release;
-import org.json.JSONObject;
 
-import java.text.DateFormat;
-import java.text.ParsePosition;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -22,22 +20,15 @@ public class JiraBeanInformations {
 
     private Release trulyFixedVersion;
 
-    public JiraBeanInformations(JSONObject jo){
-        Integer i;
-
-        this.key = (String) jo.get("key");
-
-        var obj = jo.getJSONObject("fields");
-        String openingVersionDate = (String) obj.get("created");
-        DateFormat pattern = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
-        this.openingDate = pattern.parse(openingVersionDate, new ParsePosition(0));
+    public JiraBeanInformations(JiraTicket ticket){
+        this.key = ticket.getKey();
+        this.openingDate = JiraBeanInformations.toDate(ticket.getCreated());
+        this.affectedVersionsName = new ArrayList<>(Arrays.asList(ticket.getAffectedVersions()));
+    }
 
-        this.affectedVersionsName = new ArrayList<>();
-        var affected = obj.getJSONArray("versions");
-        for (i = 0; i < affected.length(); i++){
-            String curr = (String) affected.getJSONObject(i).get("name");
-            this.affectedVersionsName.add(curr);
-        }
+    private static Date toDate(long created) {
+        /*  null if the date couldn't be parsed   */
+        return created == JiraTicket.NO_DATE ? null : new Date(created);
     }
 
     public String getKey() {
@@ -0,0 +1,28 @@
+package logic.bean;
+
+import logic.enums.FeaturesSelectionScope;
+import logic.exception.InvalidInputException;
+
+public class PipelineBean extends ProportionBean {
+    /*  a ProportionBean whose output file is the one of the weka evaluations: the dataset is never written   */
+
+    FeaturesSelectionScope featuresSelectionScope = FeaturesSelectionScope.TOTAL_DATA;
+
+    public PipelineBean(String outputFile, String dirPath, String projectName, String proportion)
+            throws InvalidInputException {
+
+        super(outputFile, dirPath, projectName, proportion);
+    }
+
+    public String getDatasetName() {
+        return this.project.toLowerCase() + "_without_duplicated_lines";
+    }
+
+    public FeaturesSelectionScope getFeaturesSelectionScope() {
+        return featuresSelectionScope;
+    }
+
+    public void setFeaturesSelectionScope(FeaturesSelectionScope featuresSelectionScope) {
+        this.featuresSelectionScope = featuresSelectionScope;
+    }
+}
@@ -1,12 +1,24 @@
 package logic.bean;
 
 import logic.abstracts.AbstractBean;
+import logic.dataset_manager.JiraFetcher;
 import logic.enums.ProportionAlgoOptions;
 import logic.exception.InvalidInputException;
+import logic.proportion_algo.ProportionMovingWindow;
+import logic.proportion_algo.ProportionTable;
+
+import java.io.File;
 
 public class ProportionBean extends AbstractBean {
 
     ProportionAlgoOptions proportionAlgo;
+    Boolean diskCache = Boolean.FALSE;
+    Boolean incremental = Boolean.FALSE;
+    Boolean mappedMetrics = Boolean.FALSE;
+    Integer movingWindowSize = ProportionMovingWindow.DEFAULT_WINDOW_SIZE;
+    File proportionTable = new File(ProportionTable.DEFAULT_FILE);
+    String jiraSearchUrl = JiraFetcher.DEFAULT_SEARCH_URL;
+    File jiraCacheDirectory = null;
 
     public ProportionBean(String outputFile, String dirPath, String projectName, String proportion)
             throws InvalidInputException {
@@ -20,7 +32,73 @@ public class ProportionBean extends AbstractBean {
         }
     }
 
+    public ProportionBean(String dirPath, String projectName) throws InvalidInputException {
+        /*  for a dataset which is neither labeled nor written, as the one built by ProportionDataset.withoutFiles:
+            no proportion algo and no output file   */
+        super(dirPath, projectName);
+    }
+
     public ProportionAlgoOptions getProportionAlgo() {
         return proportionAlgo;
     }
+
+    public Boolean isDiskCacheEnabled() {
+        return diskCache;
+    }
+
+    public void setDiskCache(Boolean diskCache) {
+        /*  LOC and differences are stored in the cache directory of the repository, and read by later runs:
+            see JgitManager.enableDiskCache */
+        this.diskCache = diskCache;
+    }
+
+    public Boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(Boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    public Boolean isMappedMetrics() {
+        return mappedMetrics;
+    }
+
+    public void setMappedMetrics(Boolean mappedMetrics) {
+        this.mappedMetrics = mappedMetrics;
+    }
+
+    public Integer getMovingWindowSize() {
+        return movingWindowSize;
+    }
+
+    public void setMovingWindowSize(Integer movingWindowSize) {
+        this.movingWindowSize = movingWindowSize;
+    }
+
+    public File getProportionTable() {
+        return proportionTable;
+    }
+
+    public void setProportionTable(File proportionTable) {
+        this.proportionTable = proportionTable;
+    }
+
+    public String getJiraSearchUrl() {
+        return jiraSearchUrl;
+    }
+
+    public void setJiraSearchUrl(String jiraSearchUrl) {
+        this.jiraSearchUrl = jiraSearchUrl;
+    }
+
+    public File getJiraCacheDirectory() {
+        /*  null if not set: Jira responses are then not cached. A cached search is not refreshed, but in
+            incremental mode: see JiraFetcher   */
+        return jiraCacheDirectory;
+    }
+
+    public void setJiraCacheDirectory(File jiraCacheDirectory) {
+        this.jiraCacheDirectory = jiraCacheDirectory;
+    }
 }
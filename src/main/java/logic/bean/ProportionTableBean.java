@@ -0,0 +1,52 @@
+package logic.bean;
+
+import logic.dataset_manager.JiraFetcher;
+import logic.exception.InvalidInputException;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProportionTableBean {
+
+    private File table;
+    /*  local clone of each project, by project name  */
+    private Map<String, File> repositories;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private String jiraSearchUrl = JiraFetcher.DEFAULT_SEARCH_URL;
+
+    public ProportionTableBean(String tableFile, Map<String, String> repositories) throws InvalidInputException {
+        this.table = new File(tableFile);
+        this.repositories = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : repositories.entrySet()) {
+            var directory = new File(entry.getValue());
+            if (!directory.exists())
+                throw new InvalidInputException("Directory doesn't exist: " + entry.getValue());
+            this.repositories.put(entry.getKey().toUpperCase(), directory);
+        }
+    }
+
+    public File getTable() {
+        return table;
+    }
+
+    public Map<String, File> getRepositories() {
+        return repositories;
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    public void setWorkers(int workers) {
+        this.workers = workers;
+    }
+
+    public String getJiraSearchUrl() {
+        return jiraSearchUrl;
+    }
+
+    public void setJiraSearchUrl(String jiraSearchUrl) {
+        this.jiraSearchUrl = jiraSearchUrl;
+    }
+}
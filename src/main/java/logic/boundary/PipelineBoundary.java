@@ -0,0 +1,45 @@
+package logic.boundary;
+
+import logic.bean.PipelineBean;
+import logic.controller.PipelineController;
+import logic.enums.FeaturesSelectionScope;
+
+public class PipelineBoundary {
+
+    private String outputFile;
+    private String dirPath;
+    private String projectName;
+    private String proportion;
+    private FeaturesSelectionScope featuresSelectionScope = FeaturesSelectionScope.TOTAL_DATA;
+
+    public PipelineBoundary(String file, String dir, String proj, String proportionAlgo){
+        /*  from the repository to the classifier evaluations: see PipelineController  */
+        this.outputFile = file;
+        this.dirPath = dir;
+        this.projectName = proj;
+        this.proportion = proportionAlgo;
+    }
+
+    public void setFeaturesSelectionScope(FeaturesSelectionScope featuresSelectionScope) {
+        /*  TRAINING_PREFIX searches the features on the training set of each step only: see FeatureSelectionCache */
+        this.featuresSelectionScope = featuresSelectionScope;
+    }
+
+    public void runPipeline() throws Exception {
+        var bean = new PipelineBean(this.outputFile,
+                this.dirPath,
+                this.projectName,
+                this.proportion);
+        bean.setFeaturesSelectionScope(this.featuresSelectionScope);
+        var controller = new PipelineController();
+        controller.run(bean);
+    }
+
+    public static void main(String[] args) throws Exception {
+        var boundary = new PipelineBoundary("/home/luca/Scrivania/openjpaWeka.csv",
+                "/home/luca/Scrivania/ISW2/deliverables/deliverable2/openjpa",
+                "openjpa",
+                "Increment");
+        boundary.runPipeline();
+    }
+}
@@ -5,13 +5,21 @@ import logic.bean.ProportionBean;
 import logic.controller.ProportionController;
 import logic.exception.InvalidRangeException;
 import logic.exception.NotAvaiableAlgorithm;
+import logic.proportion_algo.ProportionMovingWindow;
+import logic.proportion_algo.ProportionTable;
 import org.eclipse.jgit.api.errors.GitAPIException;
 
+import java.io.File;
 import java.io.IOException;
 
 public class ProportionAnalisysBoundary extends AbstractBoundary {
 
     private String proportion;
+    private Boolean diskCache = Boolean.FALSE;
+    private Boolean incremental = Boolean.FALSE;
+    private Boolean mappedMetrics = Boolean.FALSE;
+    private Integer movingWindowSize = ProportionMovingWindow.DEFAULT_WINDOW_SIZE;
+    private String proportionTable = ProportionTable.DEFAULT_FILE;
 
     public ProportionAnalisysBoundary(String file, String dir, String proj, String proportionAlgo){
         this.outputFile = file;
@@ -20,12 +28,42 @@ public class ProportionAnalisysBoundary extends AbstractBoundary {
         this.proportion = proportionAlgo;
     }
 
+    public void setDiskCache(Boolean diskCache) {
+        /*  LOC and differences computed by a run are reused by the next ones: see JgitManager.enableDiskCache */
+        this.diskCache = diskCache;
+    }
+
+    public void setIncremental(Boolean incremental) {
+        /*  only the releases tagged after the previous run are computed: see ProportionDataset */
+        this.incremental = incremental;
+    }
+
+    public void setMappedMetrics(Boolean mappedMetrics) {
+        /*  metrics are kept in a memory mapped file instead of the heap: see MappedMetricTable */
+        this.mappedMetrics = mappedMetrics;
+    }
+
+    public void setMovingWindowSize(Integer movingWindowSize) {
+        /*  number of fixed bugs P is computed on, for the moving window algorithm   */
+        this.movingWindowSize = movingWindowSize;
+    }
+
+    public void setProportionTable(String proportionTable) {
+        /*  P of the other projects, for the cold start algorithm: see ProportionTableBoundary  */
+        this.proportionTable = proportionTable;
+    }
+
     @Override
     public void runUseCase() throws GitAPIException, InvalidRangeException, IOException, NotAvaiableAlgorithm {
         var bean = new ProportionBean(this.outputFile,
                 this.dirPath,
                 this.projectName,
                 this.proportion);
+        bean.setDiskCache(this.diskCache);
+        bean.setIncremental(this.incremental);
+        bean.setMappedMetrics(this.mappedMetrics);
+        bean.setMovingWindowSize(this.movingWindowSize);
+        bean.setProportionTable(new File(this.proportionTable));
         var controller = new ProportionController();
         controller.run(bean);
     }
@@ -0,0 +1,42 @@
+package logic.boundary;
+
+import logic.bean.ProportionTableBean;
+import logic.controller.ProportionTableController;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProportionTableBoundary {
+
+    private String tableFile;
+    private Map<String, String> repositories;
+
+    public ProportionTableBoundary(String table){
+        /*  fills the table the cold start algorithm reads: see ProportionTable  */
+        this.tableFile = table;
+        this.repositories = new LinkedHashMap<>();
+    }
+
+    public void addProject(String projectName, String dirPath){
+        /*  dirPath is a local clone of the project  */
+        this.repositories.put(projectName, dirPath);
+    }
+
+    public void runUseCase() throws IOException {
+        var bean = new ProportionTableBean(this.tableFile, this.repositories);
+        var controller = new ProportionTableController();
+        controller.run(bean);
+    }
+
+    public static void main(String[] args) throws IOException {
+        var boundary = new ProportionTableBoundary("/home/luca/Scrivania/ISW2/proportion_table.csv");
+        boundary.addProject("avro", "/home/luca/Scrivania/ISW2/clones/avro");
+        boundary.addProject("syncope", "/home/luca/Scrivania/ISW2/clones/syncope");
+        boundary.addProject("tajo", "/home/luca/Scrivania/ISW2/clones/tajo");
+        boundary.addProject("zookeeper", "/home/luca/Scrivania/ISW2/clones/zookeeper");
+        boundary.addProject("bookkeeper", "/home/luca/Scrivania/ISW2/deliverables/deliverable2/bookkeeper");
+        boundary.addProject("openjpa", "/home/luca/Scrivania/ISW2/deliverables/deliverable2/openjpa");
+        boundary.runUseCase();
+    }
+}
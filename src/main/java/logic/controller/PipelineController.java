@@ -0,0 +1,20 @@
+package logic.controller;
+
+import logic.bean.PipelineBean;
+import logic.weka.InstancesCreator;
+import logic.weka.WekaManager;
+import weka.core.Instances;
+
+public class PipelineController {
+
+    public void run(PipelineBean bean) throws Exception {
+        /*  the dataset goes to weka in memory: no csv or arff is written in between  */
+        Instances instances;
+        try (var dataset = new ProportionController().buildDataset(bean)) {
+            instances = InstancesCreator.createInstances(dataset.getReleases(), dataset.getFileManager(),
+                    bean.getDatasetName());
+        }
+        var wekaManager = new WekaManager(instances, bean.getFeaturesSelectionScope());
+        new WekaController().evaluate(wekaManager, bean.getOutputFile(), bean.getDatasetName());
+    }
+}
@@ -1,14 +1,16 @@
 package logic.controller;
 
 import logic.bean.ProportionBean;
+import logic.dataset_manager.DatasetCsvWriter;
 import logic.dataset_manager.ProportionDataset;
-import logic.dataset_manager.Release;
-import logic.dataset_manager.ReleaseFile;
+import logic.enums.ProportionAlgoOptions;
 import logic.exception.InvalidRangeException;
 import logic.exception.NotAvaiableAlgorithm;
+import logic.proportion_algo.ProportionColdStart;
 import logic.proportion_algo.ProportionIncrement;
+import logic.proportion_algo.ProportionMovingWindow;
+import logic.proportion_algo.ProportionTable;
 import org.eclipse.jgit.api.errors.GitAPIException;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -18,23 +20,60 @@ public class ProportionController {
     public void run(ProportionBean bean)
             throws IOException, GitAPIException, InvalidRangeException, NotAvaiableAlgorithm {
 
-        ProportionDataset dataset = null;
+        try (var dataset = this.buildDataset(bean)) {
+            this.writeToFile(bean, dataset);
+        }
+    }
+
+    public ProportionDataset buildDataset(ProportionBean bean)
+            throws IOException, GitAPIException, InvalidRangeException, NotAvaiableAlgorithm {
+        /*  returns the dataset with features and bugginess computed, on the first half of the releases: the
+            caller must close it   */
 
-        /*  Checking proportion algo to use */
-        switch (bean.getProportionAlgo()){
-            case PROPORTION_INCREMENT:
-                dataset = new ProportionDataset(bean);
-                dataset.computeFeatures();
-                this.proportionIncrementMode(dataset);
-                /*  halve releases: */
-                dataset.removeHalfRelease();
-                this.writeToFile(bean, dataset);
-                break;
-            case PROPORTION_MOVING_WINDOW: //i want to implement also this
-                throw new NotAvaiableAlgorithm("Algorithm not avaiable.");
-            case PROPORTION_COLD_START:
-                throw new NotAvaiableAlgorithm("Algorithm not avaiable.");
+        /*  Checking proportion algo can run, before a dataset is built   */
+        Integer coldStartP = null;
+        if (bean.getProportionAlgo() == ProportionAlgoOptions.PROPORTION_MOVING_WINDOW
+                && bean.getMovingWindowSize() <= 0)
+            throw new InvalidRangeException("Moving window size should be greater than 0");
+        if (bean.getProportionAlgo() == ProportionAlgoOptions.PROPORTION_COLD_START) {
+            coldStartP = ProportionTable.load(bean.getProportionTable()).computeColdStartP(bean.getProject());
+            if (coldStartP == null)
+                throw new NotAvaiableAlgorithm("Cold start needs the P of at least another project.");
+        }
+
+        var dataset = new ProportionDataset(bean);
+        var built = false;
+        try {
+            dataset.computeFeatures(Runtime.getRuntime().availableProcessors());
+            switch (bean.getProportionAlgo()){
+                case PROPORTION_INCREMENT:
+                    this.proportionIncrementMode(dataset);
+                    break;
+                case PROPORTION_MOVING_WINDOW:
+                    this.proportionMovingWindowMode(dataset, bean.getMovingWindowSize());
+                    break;
+                case PROPORTION_COLD_START:
+                    this.proportionColdStartMode(dataset, coldStartP);
+                    break;
+            }
+            /*  halve releases: */
+            dataset.removeHalfRelease();
+            built = true;
+        } finally {
+            if (!built)
+                dataset.close();
         }
+        return dataset;
+    }
+
+    private void proportionColdStartMode(ProportionDataset dataset, int coldStartP){
+        var proportionColdStart = new ProportionColdStart(dataset, coldStartP);
+        proportionColdStart.computeProportionColdStart();
+    }
+
+    private void proportionMovingWindowMode(ProportionDataset dataset, int windowSize){
+        var proportionMovingWindow = new ProportionMovingWindow(dataset, windowSize);
+        proportionMovingWindow.computeProportionMovingWindow();
     }
 
     private void proportionIncrementMode(ProportionDataset dataset){
@@ -45,22 +84,8 @@ public class ProportionController {
     private void writeToFile(ProportionBean bean, ProportionDataset dataset){
         assert dataset != null;
 
-        var file = bean.getOutputFile();
-        try (var fw = new FileWriter(file)) {
-            var chosenFeatures = "Version,File Name,LOC,NR,NFix,NAuth,LOC_added,MAX_LOC_added,Churn,MAX_Churn,Age,Buggy\n";
-            fw.append(chosenFeatures);
-            for (Release r : dataset.getReleases()){
-                String rIndex = r.getIndex().toString() + ",";
-                for (ReleaseFile rf : dataset.getFiles()) {
-                    var line = rf.getOutputLine(r.getIndex());
-                    if (!line.isEmpty()) {
-                        fw.append(rIndex);
-                        fw.append(rf.getOutputLine(r.getIndex()));
-                    }
-                }
-            }
-
-
+        try {
+            new DatasetCsvWriter().write(bean.getOutputFile(), dataset.getReleases(), dataset.getFileManager());
         } catch (Exception e) {
             var logger = Logger.getLogger(ProportionIncrement.class.getName());
             logger.log(Level.OFF, e.toString());
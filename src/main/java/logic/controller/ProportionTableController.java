@@ -0,0 +1,64 @@
+package logic.controller;
+
+import logic.bean.ProportionBean;
+import logic.bean.ProportionTableBean;
+import logic.dataset_manager.ProportionDataset;
+import logic.proportion_algo.ProportionColdStart;
+import logic.proportion_algo.ProportionTable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class ProportionTableController {
+
+    public void run(ProportionTableBean bean) throws IOException {
+        /*  the P of each project is computed in parallel, then added to the table: projects already in it are
+            updated, the others are kept. A project which fails is left out, the others are stored anyway.  */
+        var table = bean.getTable().exists() ? ProportionTable.load(bean.getTable()) : new ProportionTable();
+        var repositories = bean.getRepositories();
+        if (repositories.isEmpty())
+            return;
+
+        var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(bean.getWorkers(), repositories.size())));
+        try {
+            Map<String, Future<Double>> results = new LinkedHashMap<>();
+            for (Map.Entry<String, File> entry : repositories.entrySet())
+                results.put(entry.getKey(), executor.submit(() -> this.computeProjectP(bean, entry.getKey(),
+                        entry.getValue())));
+
+            for (Map.Entry<String, Future<Double>> result : results.entrySet()) {
+                try {
+                    var p = result.getValue().get();
+                    if (!p.isNaN())
+                        table.put(result.getKey(), p);
+                } catch (ExecutionException e) {
+                    var logger = Logger.getLogger(ProportionTableController.class.getName());
+                    logger.log(Level.OFF, () -> result.getKey() + ": " + e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing the proportion table");
+        } finally {
+            executor.shutdownNow();
+        }
+        table.store(bean.getTable());
+    }
+
+    private double computeProjectP(ProportionTableBean bean, String project, File repository) throws Exception {
+        /*  only bugs and releases are needed: the trees of the releases are not read and no dataset is written  */
+        var proportionBean = new ProportionBean(repository.getPath(), project);
+        proportionBean.setJiraSearchUrl(bean.getJiraSearchUrl());
+        try (var dataset = ProportionDataset.withoutFiles(proportionBean)) {
+            return ProportionColdStart.computeProjectP(dataset);
+        }
+    }
+}
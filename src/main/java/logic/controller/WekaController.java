@@ -1,10 +1,8 @@
 package logic.controller;
 
 import logic.bean.WekaBean;
-import logic.enums.CostSensitiveClassifierType;
-import logic.enums.FeaturesSelectionType;
-import logic.enums.SamplingType;
 import logic.bean.WekaConfigurationOutputBean;
+import logic.weka.EvaluationEngine;
 import logic.weka.WekaManager;
 import logic.bean.WekaStepOutputBean;
 import org.decimal4j.util.DoubleRounder;
@@ -12,7 +10,6 @@ import weka.classifiers.Evaluation;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Level;
@@ -24,18 +21,15 @@ public class WekaController {
     public void run(WekaBean bean) throws Exception {
         var wekaManager = new WekaManager(bean.getInputCSV(),
                 bean.getArff());
-        var list = new ArrayList<WekaConfigurationOutputBean>();
-
-        for (FeaturesSelectionType fs : FeaturesSelectionType.values()){
-            for (CostSensitiveClassifierType csc : CostSensitiveClassifierType.values()){
-                for (SamplingType st : SamplingType.values()){
-                    var output = wekaManager.computeMetrics(fs, csc, st);
-                    list.add(output);
-                }
-            }
-        }
         var name = bean.getInputCSV().getName().split("\\.")[0] + "_without_duplicated_lines";
-        this.writeFile(list, bean.getOutputCSV(), name, wekaManager.getNumOfRelease());
+        this.evaluate(wekaManager, bean.getOutputCSV(), name);
+    }
+
+    public void evaluate(WekaManager wekaManager, File outputCSV, String datasetName) throws Exception {
+        /*  every configuration is evaluated on the steps of wekaManager, then written on outputCSV  */
+        var engine = new EvaluationEngine(wekaManager, Runtime.getRuntime().availableProcessors());
+        var list = engine.evaluateAll();
+        this.writeFile(list, outputCSV, datasetName, wekaManager.getNumOfRelease());
     }
 
 
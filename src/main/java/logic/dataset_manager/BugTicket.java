@@ -33,7 +33,8 @@ public class BugTicket  {
         this.relativeCommits = (ArrayList<Commit>) relativeCommits;
     }
 
-    public void addFileTouched(DiffEntry diff) {
+    public synchronized void addFileTouched(DiffStat diff) {
+        /*  synchronized: releases may be processed in parallel, see ProportionDataset.computeFeatures */
 
         String fileName = diff.getNewPath();
         //adding the file if not present and not added
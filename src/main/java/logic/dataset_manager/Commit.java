@@ -6,7 +6,7 @@ import org.eclipse.jgit.revwalk.RevWalk;
 
 import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -16,6 +16,8 @@ public class Commit {
     protected Date date;
     protected String message;
     protected JgitManager jgitManager;
+    /*  see JgitManager.getAuthorId */
+    protected int authorId;
 
     public Commit(RevCommit c, JgitManager manager) {
         this.revCommit = c;
@@ -23,6 +25,7 @@ public class Commit {
 
         this.date = c.getAuthorIdent().getWhen();
         this.message = c.getFullMessage();
+        this.authorId = manager.getAuthorId(c.getAuthorIdent());
     }
 
     public Commit(Ref r, JgitManager manager) {
@@ -32,26 +35,28 @@ public class Commit {
             this.revCommit = c;
             this.date = c.getAuthorIdent().getWhen();
             this.message = c.getFullMessage();
+            this.authorId = this.jgitManager.getAuthorId(c.getAuthorIdent());
         } catch (Exception e) {
             var logger = Logger.getLogger(Commit.class.getName());
             logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
         }
     }
 
-    public BugTicket isFixCommit(List<BugTicket> fixedBugs){
+    public BugTicket isFixCommit(Map<Commit, BugTicket> fixCommits){
         /*  this method return null if "this" is not a fix commit or the BugTicket which "this" is relative to
-        *   otherwise.   */
-        BugTicket b = null;
-        for (BugTicket bug : fixedBugs){
-            if (bug.relativeCommits.contains(this)){
-                b = bug;
-                break;
-            }
-        }
-        return b;
+        *   otherwise: see Dataset.indexFixCommits   */
+        return fixCommits.get(this);
     }
 
     public Date getDate() {
         return date;
     }
+
+    public int getAuthorId() {
+        return authorId;
+    }
+
+    public String getId() {
+        return this.revCommit.getName();
+    }
 }
@@ -10,17 +10,34 @@ import java.io.IOException;
 import java.util.*;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.regex.Pattern;
 
 public abstract class Dataset {
 
+    /*  Jira keys, as PROJECT-123   */
+    private static final Pattern TICKET_ID = Pattern.compile("[A-Z][A-Z0-9_]+-\\d+");
+    /*  svn revisions, as trunk@1234    */
+    private static final Pattern SVN_REVISION = Pattern.compile("trunk@(\\d+)");
+
+    /*  shared by all the commits: authors are interned by it, see JgitManager.getAuthorId  */
+    protected JgitManager jgitManager;
     protected ArrayList<Commit> commits;
     protected ArrayList<BugTicket> fixedBugs;
+    /*  commits which mention each ticket id, in this.commits order   */
+    private Map<String, List<Commit>> ticketIndex;
+    /*  first commit with each SHA-1 and first commit which mentions each svn revision   */
+    private Map<String, Commit> gitIdIndex;
+    private Map<String, Commit> svnIdIndex;
+    /*  dates of this.commits   */
+    protected Timeline commitTimeline;
+    /*  bug fixed by each fix commit: see Commit.isFixCommit    */
+    protected Map<Commit, BugTicket> fixCommits;
 
     //***********************************************************************************************************
 
     protected Dataset(AbstractBean bean) throws IOException {
-        var jgitManager = new JgitManager(bean.getDirectory().getPath());
-        this.initializeCommitList(jgitManager);
+        this.jgitManager = new JgitManager(bean.getDirectory().getPath());
+        this.initializeCommitList(this.jgitManager);
     }
 
     private void initializeCommitList(JgitManager manager) {
@@ -41,17 +58,53 @@ public abstract class Dataset {
             var logger = Logger.getLogger(JgitManager.class.getName());
             logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
         }
+        this.indexCommits();
     }
 
     protected abstract void initializeBugsList(String projectName) throws IOException;
 
+    protected void indexCommits() {
+        /*  must be invoked again whenever this.commits changes    */
+        this.ticketIndex = new HashMap<>();
+        this.gitIdIndex = new HashMap<>();
+        this.svnIdIndex = new HashMap<>();
+        this.commitTimeline = new Timeline(this.commits);
+        for (Commit c : this.commits) {
+            this.gitIdIndex.putIfAbsent(c.revCommit.getName(), c);
+            var svnMatcher = SVN_REVISION.matcher(c.message);
+            while (svnMatcher.find())
+                this.svnIdIndex.putIfAbsent(svnMatcher.group(1), c);
+
+            var matcher = TICKET_ID.matcher(c.message);
+            while (matcher.find()) {
+                List<Commit> relatives = this.ticketIndex.computeIfAbsent(matcher.group(), k -> new ArrayList<>());
+                // a message may mention the same ticket more than once
+                if (relatives.isEmpty() || relatives.get(relatives.size() - 1) != c)
+                    relatives.add(c);
+            }
+        }
+    }
+
+    protected void removeCommits(Collection<Commit> toRemove) {
+        /*  one pass over this.commits, whatever the number of commits to remove   */
+        Set<Commit> removed = new HashSet<>(toRemove);
+        this.commits.removeIf(removed::contains);
+        this.indexCommits();
+    }
+
+    protected void indexFixCommits() {
+        /*  must be invoked once this.fixedBugs is complete and sorted: when a commit fixes more than one bug,
+         *  the first one in this.fixedBugs is its bug  */
+        this.fixCommits = new HashMap<>();
+        for (BugTicket bug : this.fixedBugs)
+            for (Commit c : bug.relativeCommits)
+                this.fixCommits.putIfAbsent(c, bug);
+    }
+
     protected List<Commit> findCommitsFromTicketId(String ticketId){
-        /*  This method returns the Commit list which are relative to a given TicketId  */
-        ArrayList<Commit> relativeCommits = new ArrayList<>();
-        for (Commit c : this.commits)
-            if (c.message.contains(ticketId))
-                relativeCommits.add(c);
-        return relativeCommits;
+        /*  This method returns the Commit list which are relative to a given TicketId: a commit is relative
+         *  only if it mentions exactly that ticket (OPENJPA-12 isn't relative to OPENJPA-123)  */
+        return new ArrayList<>(this.ticketIndex.getOrDefault(ticketId, Collections.emptyList()));
     }
 
 
@@ -67,30 +120,21 @@ public abstract class Dataset {
         return fixedBugs;
     }
 
+    public Map<Commit, BugTicket> getFixCommits() {
+        return fixCommits;
+    }
+
     //***********************************************************************************************************
     // utility
 
     protected Commit findGitCommit(String id){
         /*  returns the commit which the given SHA-1    */
-        Commit commit = null;
-        for (Commit c : this.commits) {
-            if (c.revCommit.getName().equals(id)) {
-                commit = c;
-                break;
-            }
-        }
-        return commit;
+        return this.gitIdIndex.get(id);
     }
 
     protected Commit findSvnCommit(String id){
-        Commit commit = null;
-        for (Commit c : this.commits) {
-            if (c.message.contains("trunk@" + id)) {
-                commit = c;
-                break;
-            }
-        }
-        return commit;
+        /*  returns the first commit which mentions exactly the given revision: trunk@12 isn't trunk@123    */
+        return this.svnIdIndex.get(id);
     }
 
     public Commit findCommitFromId(String id) {
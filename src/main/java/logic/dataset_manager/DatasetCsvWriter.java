@@ -0,0 +1,67 @@
+package logic.dataset_manager;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*  Writes the dataset csv: one row for each file of each release, read through a MetricCursor. Rows are
+ *  formatted in a reused buffer and written once through a large buffered writer, so the only allocations
+ *  are the ones of the writer itself.  */
+public class DatasetCsvWriter {
+
+    public static final String HEADER =
+            "Version,File Name,LOC,NR,NFix,NAuth,LOC_added,MAX_LOC_added,Churn,MAX_Churn,Age,Buggy\n";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final StringBuilder row;
+    private char[] chars;
+
+    public DatasetCsvWriter() {
+        this.row = new StringBuilder(256);
+        this.chars = new char[256];
+    }
+
+    public long write(File output, List<Release> releases, ReleaseFileManager files) throws IOException {
+        /*  returns the number of rows written, header excluded: they are reported with the throughput  */
+        var start = System.nanoTime();
+        long rows = 0;
+        try (var writer = new BufferedWriter(new FileWriter(output), BUFFER_SIZE)) {
+            writer.write(HEADER);
+            for (Release r : releases) {
+                var cursor = files.cursor(r.getIndex());
+                while (cursor.next()) {
+                    this.formatRow(r.getIndex(), cursor);
+                    this.writeRow(writer);
+                    rows++;
+                }
+            }
+        }
+
+        var seconds = (System.nanoTime() - start) / 1e9;
+        var message = String.format("%d rows written to %s (%.0f rows/s)", rows, output.getName(),
+                seconds > 0 ? rows / seconds : 0);
+        Logger.getLogger(DatasetCsvWriter.class.getName()).log(Level.INFO, message);
+        return rows;
+    }
+
+    private void formatRow(int releaseIndex, MetricCursor cursor) {
+        this.row.setLength(0);
+        this.row.append(releaseIndex).append(',').append(cursor.getName());
+        for (MetricTable.Column column : MetricTable.Column.values())
+            this.row.append(',').append(cursor.get(column));
+        this.row.append(',').append(cursor.isBuggy() ? "Yes" : "No").append('\n');
+    }
+
+    private void writeRow(Writer writer) throws IOException {
+        var length = this.row.length();
+        if (length > this.chars.length)
+            this.chars = new char[Math.max(length, this.chars.length * 2)];
+        this.row.getChars(0, length, this.chars, 0);
+        writer.write(this.chars, 0, length);
+    }
+}
@@ -0,0 +1,243 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.diff.DiffEntry;
+
+import java.io.*;
+import java.util.*;
+
+/*  Metrics of the releases already computed by a previous run, so that only new releases are computed when a
+ *  project tags a new one (see ProportionDataset incremental mode).
+ *
+ *  It stores, for each release, its commit and the ones between it and the previous release: the snapshot is
+ *  used only if they are a prefix of the releases of this run. For each file, it stores its addition date and
+ *  its name and metrics in each release, but nFix and bugginess: they depend on the bugs retrieved by the run,
+ *  that's why the files touched by each commit are stored too (see Release.replayFixes).  */
+public class DatasetSnapshot {
+
+    private static final int FILE_VERSION = 1;
+    private static final int METRICS = 8;
+
+    private String[] releaseIds;
+    private String[][] commitIds;
+
+    private Date[] additionDates;
+    private String[][] names;
+    private long[][][] metrics;
+
+    private List<Map<String, List<Touch>>> touches;
+
+    private DatasetSnapshot() {
+    }
+
+    public DatasetSnapshot(List<Release> releases, ReleaseFileManager files) {
+        /*  releases must be computed: see ProportionDataset.computeFeatures   */
+        var numOfReleases = releases.size();
+        this.releaseIds = new String[numOfReleases];
+        this.commitIds = new String[numOfReleases][];
+        int i;
+        for (i = 0; i < numOfReleases; i++) {
+            var r = releases.get(i);
+            this.releaseIds[i] = r.getId();
+            this.commitIds[i] = DatasetSnapshot.idsOf(r.getCommits());
+        }
+
+        List<ReleaseFile> fileList = files.getFileList();
+        Map<ReleaseFile, Integer> positions = new IdentityHashMap<>();
+        this.additionDates = new Date[fileList.size()];
+        this.names = new String[fileList.size()][];
+        this.metrics = new long[fileList.size()][numOfReleases][];
+        int p;
+        for (p = 0; p < fileList.size(); p++) {
+            var rf = fileList.get(p);
+            positions.put(rf, p);
+            this.additionDates[p] = rf.getDate();
+            this.names[p] = Arrays.copyOf(rf.getNames(), numOfReleases);
+            for (i = 0; i < numOfReleases; i++)
+                this.metrics[p][i] = this.names[p][i].isEmpty() ? null : rf.getRestorableMetrics(i + 1);
+        }
+
+        this.touches = new ArrayList<>();
+        for (Release r : releases) {
+            Map<String, List<Touch>> releaseTouches = new LinkedHashMap<>();
+            for (Map.Entry<Commit, List<Release.FileTouch>> entry : r.getTouches().entrySet()) {
+                List<Touch> commitTouches = new ArrayList<>();
+                for (Release.FileTouch touch : entry.getValue())
+                    commitTouches.add(new Touch(positions.get(touch.file), touch.diff));
+                releaseTouches.put(entry.getKey().getId(), commitTouches);
+            }
+            this.touches.add(releaseTouches);
+        }
+    }
+
+    private static String[] idsOf(List<Commit> commits) {
+        var ids = new String[commits.size()];
+        int i;
+        for (i = 0; i < ids.length; i++)
+            ids[i] = commits.get(i).getId();
+        return ids;
+    }
+
+    public int getNumOfReleases() {
+        return this.releaseIds.length;
+    }
+
+    public boolean isPrefixOf(List<Release> releases) {
+        /*  true if the stored releases are the first ones of the given list, with the same commits  */
+        if (this.releaseIds.length > releases.size())
+            return false;
+        int i;
+        for (i = 0; i < this.releaseIds.length; i++) {
+            var r = releases.get(i);
+            if (!this.releaseIds[i].equals(r.getId()) || !Arrays.equals(this.commitIds[i], idsOf(r.getCommits())))
+                return false;
+        }
+        return true;
+    }
+
+    List<ReleaseFile> restoreFiles(JgitManager jgitManager, MetricTable table) {
+        /*  files are returned in the order they had: new files of this run are added after them, as a full
+         *  computation would do   */
+        List<ReleaseFile> files = new ArrayList<>(this.names.length);
+        int p;
+        int i;
+        for (p = 0; p < this.names.length; p++) {
+            var rf = new ReleaseFile(jgitManager, table, 0, this.additionDates[p], "");
+            for (i = 0; i < this.releaseIds.length; i++)
+                if (!this.names[p][i].isEmpty())
+                    rf.restoreMetrics(i + 1, this.names[p][i], this.metrics[p][i]);
+            files.add(rf);
+        }
+        return files;
+    }
+
+    void restoreTouches(List<Release> releases, List<ReleaseFile> files) {
+        int i;
+        for (i = 0; i < this.releaseIds.length; i++) {
+            var r = releases.get(i);
+            Map<String, Commit> commits = new HashMap<>();
+            for (Commit c : r.getCommits())
+                commits.put(c.getId(), c);
+            commits.put(r.getId(), r);
+
+            Map<Commit, List<Release.FileTouch>> releaseTouches = new LinkedHashMap<>();
+            for (Map.Entry<String, List<Touch>> entry : this.touches.get(i).entrySet()) {
+                List<Release.FileTouch> commitTouches = new ArrayList<>();
+                for (Touch touch : entry.getValue())
+                    commitTouches.add(new Release.FileTouch(files.get(touch.position), touch.diff));
+                releaseTouches.put(commits.get(entry.getKey()), commitTouches);
+            }
+            r.setTouches(releaseTouches);
+        }
+    }
+
+    public static DatasetSnapshot load(File file) throws IOException {
+        var snapshot = new DatasetSnapshot();
+        try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION)
+                throw new IOException("Unsupported dataset snapshot: " + file.getPath());
+
+            var numOfReleases = in.readInt();
+            snapshot.releaseIds = new String[numOfReleases];
+            snapshot.commitIds = new String[numOfReleases][];
+            int i;
+            int j;
+            for (i = 0; i < numOfReleases; i++) {
+                snapshot.releaseIds[i] = in.readUTF();
+                snapshot.commitIds[i] = new String[in.readInt()];
+                for (j = 0; j < snapshot.commitIds[i].length; j++)
+                    snapshot.commitIds[i][j] = in.readUTF();
+            }
+
+            var numOfFiles = in.readInt();
+            snapshot.additionDates = new Date[numOfFiles];
+            snapshot.names = new String[numOfFiles][numOfReleases];
+            snapshot.metrics = new long[numOfFiles][numOfReleases][];
+            int p;
+            for (p = 0; p < numOfFiles; p++) {
+                snapshot.additionDates[p] = in.readBoolean() ? new Date(in.readLong()) : null;
+                for (i = 0; i < numOfReleases; i++) {
+                    snapshot.names[p][i] = in.readUTF();
+                    if (!snapshot.names[p][i].isEmpty()) {
+                        snapshot.metrics[p][i] = new long[METRICS];
+                        for (j = 0; j < METRICS; j++)
+                            snapshot.metrics[p][i][j] = in.readLong();
+                    }
+                }
+            }
+
+            var changeTypes = DiffEntry.ChangeType.values();
+            snapshot.touches = new ArrayList<>();
+            for (i = 0; i < numOfReleases; i++) {
+                Map<String, List<Touch>> releaseTouches = new LinkedHashMap<>();
+                var numOfCommits = in.readInt();
+                int c;
+                for (c = 0; c < numOfCommits; c++) {
+                    var id = in.readUTF();
+                    var size = in.readInt();
+                    List<Touch> commitTouches = new ArrayList<>(size);
+                    for (j = 0; j < size; j++) {
+                        var position = in.readInt();
+                        var diff = new DiffStat(in.readUTF(), in.readUTF(), changeTypes[in.readByte()], 0, 0);
+                        commitTouches.add(new Touch(position, diff));
+                    }
+                    releaseTouches.put(id, commitTouches);
+                }
+                snapshot.touches.add(releaseTouches);
+            }
+        }
+        return snapshot;
+    }
+
+    public void store(File file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_VERSION);
+
+            out.writeInt(this.releaseIds.length);
+            int i;
+            for (i = 0; i < this.releaseIds.length; i++) {
+                out.writeUTF(this.releaseIds[i]);
+                out.writeInt(this.commitIds[i].length);
+                for (String id : this.commitIds[i])
+                    out.writeUTF(id);
+            }
+
+            out.writeInt(this.names.length);
+            int p;
+            for (p = 0; p < this.names.length; p++) {
+                out.writeBoolean(this.additionDates[p] != null);
+                if (this.additionDates[p] != null)
+                    out.writeLong(this.additionDates[p].getTime());
+                for (i = 0; i < this.releaseIds.length; i++) {
+                    out.writeUTF(this.names[p][i]);
+                    if (!this.names[p][i].isEmpty())
+                        for (long value : this.metrics[p][i])
+                            out.writeLong(value);
+                }
+            }
+
+            for (Map<String, List<Touch>> releaseTouches : this.touches) {
+                out.writeInt(releaseTouches.size());
+                for (Map.Entry<String, List<Touch>> entry : releaseTouches.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(entry.getValue().size());
+                    for (Touch touch : entry.getValue()) {
+                        out.writeInt(touch.position);
+                        out.writeUTF(touch.diff.getOldPath());
+                        out.writeUTF(touch.diff.getNewPath());
+                        out.writeByte(touch.diff.getChangeType().ordinal());
+                    }
+                }
+            }
+        }
+    }
+
+    private static class Touch {
+        private final int position;
+        private final DiffStat diff;
+
+        private Touch(int position, DiffStat diff) {
+            this.position = position;
+            this.diff = diff;
+        }
+    }
+}
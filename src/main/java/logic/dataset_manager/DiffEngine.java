@@ -0,0 +1,87 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.diff.DiffConfig;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.RawTextComparator;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/*  An ObjectReader and a DiffFormatter kept open for a whole pass over the commits (see
+ *  Release.computeMetrics). It is not thread safe: each worker opens its own engine.
+ *
+ *  Rename detection is left to the repository configuration: it only affects the listing of the differences,
+ *  the line counts of an entry never depended on it.  */
+public class DiffEngine implements AutoCloseable {
+
+    /*  to be changed with the comparator, the file filter or the line counting: see settingsOf  */
+    private static final int SETTINGS_VERSION = 1;
+
+    private final ObjectReader reader;
+    private final DiffFormatter formatter;
+    private final CanonicalTreeParser oldTreeIter;
+    private final CanonicalTreeParser newTreeIter;
+
+    public DiffEngine(Repository repository) {
+        this.reader = repository.newObjectReader();
+        this.formatter = new DiffFormatter(DisabledOutputStream.INSTANCE);
+        this.formatter.setReader(this.reader, repository.getConfig());
+        this.formatter.setDiffComparator(RawTextComparator.DEFAULT);
+        this.oldTreeIter = new CanonicalTreeParser();
+        this.newTreeIter = new CanonicalTreeParser();
+    }
+
+    public static String settingsOf(Repository repository) {
+        /*  what the differences of two trees depend on, besides the trees: the version changes with the way they
+         *  are listed and counted here, the rest comes from the repository configuration   */
+        var config = repository.getConfig().get(DiffConfig.KEY);
+        return "version=" + SETTINGS_VERSION + ";renames=" + config.getRenameDetectionType()
+                + ";renameLimit=" + config.getRenameLimit();
+    }
+
+    public ObjectReader getReader() {
+        return this.reader;
+    }
+
+    private List<DiffEntry> listDifferences(RevCommit older, RevCommit newer) throws IOException {
+        /*  only java files are returned   */
+        this.oldTreeIter.reset(this.reader, older.getTree().getId());
+        this.newTreeIter.reset(this.reader, newer.getTree().getId());
+
+        List<DiffEntry> diffs = this.formatter.scan(this.oldTreeIter, this.newTreeIter);
+        diffs.removeIf((DiffEntry diff) -> !diff.getNewPath().endsWith(".java"));
+        return diffs;
+    }
+
+    private Integer[] countLinesAddedAndDeleted(DiffEntry diffEntry) throws IOException {
+        var linesAdded = 0;
+        var linesDeleted = 0;
+        for (Edit edit : this.formatter.toFileHeader(diffEntry).toEditList()) {
+            linesDeleted += edit.getEndA() - edit.getBeginA();
+            linesAdded += edit.getEndB() - edit.getBeginB();
+        }
+        return new Integer[]{linesAdded, linesDeleted};
+    }
+
+    public List<DiffStat> listDiffStats(RevCommit older, RevCommit newer) throws IOException {
+        List<DiffEntry> differences = this.listDifferences(older, newer);
+        List<DiffStat> stats = new ArrayList<>(differences.size());
+        for (DiffEntry diff : differences)
+            stats.add(new DiffStat(diff, this.countLinesAddedAndDeleted(diff)));
+        return stats;
+    }
+
+    @Override
+    public void close() {
+        this.formatter.close();
+        this.reader.close();
+    }
+}
@@ -0,0 +1,47 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.diff.DiffEntry;
+
+/*  What the metrics need of a DiffEntry: paths, change type and the lines added and deleted.
+ *  Unlike a DiffEntry, it can be cached and stored: see DiffStatCache   */
+public class DiffStat {
+
+    private final String oldPath;
+    private final String newPath;
+    private final DiffEntry.ChangeType changeType;
+    private final int linesAdded;
+    private final int linesDeleted;
+
+    public DiffStat(String oldPath, String newPath, DiffEntry.ChangeType changeType, int linesAdded,
+                    int linesDeleted) {
+        this.oldPath = oldPath;
+        this.newPath = newPath;
+        this.changeType = changeType;
+        this.linesAdded = linesAdded;
+        this.linesDeleted = linesDeleted;
+    }
+
+    public DiffStat(DiffEntry diff, Integer[] lines) {
+        this(diff.getOldPath(), diff.getNewPath(), diff.getChangeType(), lines[0], lines[1]);
+    }
+
+    public String getOldPath() {
+        return oldPath;
+    }
+
+    public String getNewPath() {
+        return newPath;
+    }
+
+    public DiffEntry.ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public int getLinesAdded() {
+        return linesAdded;
+    }
+
+    public int getLinesDeleted() {
+        return linesDeleted;
+    }
+}
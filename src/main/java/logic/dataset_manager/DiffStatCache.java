@@ -0,0 +1,142 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*  Differences between two trees, keyed by (old tree id, new tree id): with the same diff settings, the same
+ *  pair always has the same differences, whatever release or run asks for it. The settings are stored with
+ *  the pairs (see DiffEngine.settingsOf): a file written with other ones is not loaded. The least recently used
+ *  pairs are dropped once maxEntries is reached.   */
+public class DiffStatCache {
+
+    private static final int FILE_VERSION = 2;
+
+    private final Map<TreePair, List<DiffStat>> diffs;
+    private final String settings;
+
+    public DiffStatCache(int maxEntries, String settings) {
+        this.diffs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TreePair, List<DiffStat>> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+        this.settings = settings;
+    }
+
+    public synchronized List<DiffStat> get(AnyObjectId oldTree, AnyObjectId newTree) {
+        return this.diffs.get(new TreePair(oldTree, newTree));
+    }
+
+    public synchronized void put(AnyObjectId oldTree, AnyObjectId newTree, List<DiffStat> stats) {
+        this.diffs.put(new TreePair(oldTree.copy(), newTree.copy()), stats);
+    }
+
+    public synchronized int size() {
+        return this.diffs.size();
+    }
+
+    public synchronized void load(File file) throws IOException {
+        /*  file format: version, diff settings, path table (size and paths), number of tree pairs, then for each
+         *  pair the two raw tree ids, the number of differences and each difference as
+         *  (old path position, new path position, change type, lines added, lines deleted). Pairs are in
+         *  least recently used order   */
+        try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION)
+                throw new IOException("Unsupported diff cache: " + file.getPath());
+            if (!in.readUTF().equals(this.settings))
+                throw new IOException("Diff cache computed with other settings: " + file.getPath());
+            var paths = new String[in.readInt()];
+            int i;
+            for (i = 0; i < paths.length; i++)
+                paths[i] = in.readUTF();
+
+            var changeTypes = DiffEntry.ChangeType.values();
+            var raw = new byte[Constants.OBJECT_ID_LENGTH];
+            var pairs = in.readInt();
+            for (i = 0; i < pairs; i++) {
+                in.readFully(raw);
+                var oldTree = ObjectId.fromRaw(raw);
+                in.readFully(raw);
+                var newTree = ObjectId.fromRaw(raw);
+
+                var size = in.readInt();
+                List<DiffStat> stats = new ArrayList<>(size);
+                int j;
+                for (j = 0; j < size; j++)
+                    stats.add(new DiffStat(paths[in.readInt()], paths[in.readInt()],
+                            changeTypes[in.readByte()], in.readInt(), in.readInt()));
+                this.diffs.put(new TreePair(oldTree, newTree), stats);
+            }
+        }
+    }
+
+    public synchronized void store(File file) throws IOException {
+        /*  paths are written once: most of them appear in many pairs   */
+        Map<String, Integer> paths = new LinkedHashMap<>();
+        for (List<DiffStat> stats : this.diffs.values())
+            for (DiffStat stat : stats) {
+                paths.putIfAbsent(stat.getOldPath(), paths.size());
+                paths.putIfAbsent(stat.getNewPath(), paths.size());
+            }
+
+        try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_VERSION);
+            out.writeUTF(this.settings);
+            out.writeInt(paths.size());
+            for (String path : paths.keySet())
+                out.writeUTF(path);
+
+            var raw = new byte[Constants.OBJECT_ID_LENGTH];
+            out.writeInt(this.diffs.size());
+            for (Map.Entry<TreePair, List<DiffStat>> entry : this.diffs.entrySet()) {
+                entry.getKey().oldTree.copyRawTo(raw, 0);
+                out.write(raw);
+                entry.getKey().newTree.copyRawTo(raw, 0);
+                out.write(raw);
+
+                out.writeInt(entry.getValue().size());
+                for (DiffStat stat : entry.getValue()) {
+                    out.writeInt(paths.get(stat.getOldPath()));
+                    out.writeInt(paths.get(stat.getNewPath()));
+                    out.writeByte(stat.getChangeType().ordinal());
+                    out.writeInt(stat.getLinesAdded());
+                    out.writeInt(stat.getLinesDeleted());
+                }
+            }
+        }
+    }
+
+    private static final class TreePair {
+        private final AnyObjectId oldTree;
+        private final AnyObjectId newTree;
+
+        private TreePair(AnyObjectId oldTree, AnyObjectId newTree) {
+            this.oldTree = oldTree;
+            this.newTree = newTree;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof TreePair))
+                return false;
+            var other = (TreePair) o;
+            return AnyObjectId.isEqual(this.oldTree, other.oldTree) && AnyObjectId.isEqual(this.newTree, other.newTree);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.oldTree.hashCode() + this.newTree.hashCode();
+        }
+    }
+}
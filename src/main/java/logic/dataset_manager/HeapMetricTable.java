@@ -0,0 +1,84 @@
+package logic.dataset_manager;
+
+import java.util.Arrays;
+
+/*  MetricTable stored by column in primitive arrays: the cell of a row in a release (0 based) is at
+ *  row * numOfReleases + release of each column. An array can't have more than MAX_CELLS cells: past them,
+ *  adding a row fails, and a MappedMetricTable is needed.   */
+public class HeapMetricTable extends MetricTable {
+
+    private static final int INITIAL_ROWS = 64;
+    /*  the largest array the virtual machine allocates   */
+    private static final int MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    private final int[] slots;
+    private int capacity;
+    private int[][] intColumns;
+    private long[][] longColumns;
+
+    public HeapMetricTable(int numOfReleases) {
+        this(numOfReleases, INITIAL_ROWS);
+    }
+
+    public HeapMetricTable(int numOfReleases, int initialRows) {
+        super(numOfReleases);
+        this.slots = new int[Column.values().length];
+        var ints = 0;
+        var longs = 0;
+        for (Column c : Column.values())
+            this.slots[c.ordinal()] = c.isWide() ? longs++ : ints++;
+
+        this.capacity = 0;
+        this.intColumns = new int[ints][0];
+        this.longColumns = new long[longs][0];
+        this.ensureCapacity(Math.max(1, initialRows));
+    }
+
+    @Override
+    protected void ensureCapacity(int minRows) {
+        if (minRows <= this.capacity)
+            return;
+        var maxRows = MAX_CELLS / Math.max(1, this.numOfReleases);
+        if (minRows > maxRows)
+            throw new IllegalStateException("Too many cells for a heap metric table: " + minRows + " files in "
+                    + this.numOfReleases + " releases, use a memory mapped one");
+        this.grow((int) Math.min(Math.max(minRows, this.capacity * 2L), maxRows));
+    }
+
+    @Override
+    public void trimToSize() {
+        if (this.rows < this.capacity)
+            this.grow(Math.max(1, this.rows));
+    }
+
+    private void grow(int newCapacity) {
+        /*  newCapacity is at most MAX_CELLS / numOfReleases: see ensureCapacity   */
+        var cells = newCapacity * this.numOfReleases;
+        int i;
+        for (i = 0; i < this.intColumns.length; i++)
+            this.intColumns[i] = Arrays.copyOf(this.intColumns[i], cells);
+        for (i = 0; i < this.longColumns.length; i++)
+            this.longColumns[i] = Arrays.copyOf(this.longColumns[i], cells);
+        this.capacity = newCapacity;
+    }
+
+    private int cell(int row, int release) {
+        return row * this.numOfReleases + release;
+    }
+
+    @Override
+    public long get(Column column, int row, int release) {
+        var slot = this.slots[column.ordinal()];
+        return column.isWide() ? this.longColumns[slot][this.cell(row, release)] :
+                this.intColumns[slot][this.cell(row, release)];
+    }
+
+    @Override
+    public void set(Column column, int row, int release, long value) {
+        var slot = this.slots[column.ordinal()];
+        if (column.isWide())
+            this.longColumns[slot][this.cell(row, release)] = value;
+        else
+            this.intColumns[slot][this.cell(row, release)] = (int) value;
+    }
+}
@@ -1,84 +1,114 @@
 package logic.dataset_manager;
-import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
-import org.eclipse.jgit.diff.*;
 import org.eclipse.jgit.lib.*;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.treewalk.CanonicalTreeParser;
 import org.eclipse.jgit.treewalk.TreeWalk;
-import org.eclipse.jgit.util.io.DisabledOutputStream;
+import org.eclipse.jgit.treewalk.filter.PathSuffixFilter;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 public class JgitManager {
 
+    private static final int LOC_CACHE_SIZE = 500000;
+    private static final int DIFF_CACHE_SIZE = 100000;
+    private static final String CACHE_DIRECTORY = "isw2_cache";
+    private static final String LOC_CACHE_FILE = "loc.cache";
+    private static final String DIFF_CACHE_FILE = "diff.cache";
+
     private Repository repository;
+    private LocCache locCache;
+    private DiffStatCache diffCache;
+    private Boolean diskCache;
+    /*  id of each author, by name and email    */
+    private Map<String, Integer> authorIds;
 
     public JgitManager(String path) throws IOException{
         path += "/.git";
         var builder = new FileRepositoryBuilder();
         this.repository = builder.setGitDir(new File(path)).readEnvironment().findGitDir().build();
+        this.locCache = new LocCache(LOC_CACHE_SIZE);
+        this.diffCache = new DiffStatCache(DIFF_CACHE_SIZE, DiffEngine.settingsOf(this.repository));
+        this.diskCache = Boolean.FALSE;
+        this.authorIds = new HashMap<>();
     }
 
     public Repository getRepository() {
         return repository;
     }
 
+    public synchronized int getAuthorId(PersonIdent author) {
+        /*  the same author always has the same id, whatever the time of the commit: ids start from 0   */
+        var key = author.getName() + "\n" + author.getEmailAddress();
+        return this.authorIds.computeIfAbsent(key, k -> this.authorIds.size());
+    }
 
+    public File getCacheDirectory() {
+        /*  inside the git directory: it is never part of the working tree  */
+        return new File(this.repository.getDirectory(), CACHE_DIRECTORY);
+    }
 
-    public List<DiffEntry> listDifferencesBetweenTwoCommits(RevCommit older, RevCommit newer) throws IOException {
-
-        ObjectId olderId = older.getTree().getId();
-        ObjectId newerId = newer.getTree().getId();
-        List<DiffEntry> diffs = null;
-
-        try (var reader = repository.newObjectReader();
-             var git = new Git(repository)) {
-
-            var oldTreeIter = new CanonicalTreeParser();
-            oldTreeIter.reset(reader, olderId);
-            var newTreeIter = new CanonicalTreeParser();
-            newTreeIter.reset(reader, newerId);
-
-            diffs = git.diff()
-                    .setNewTree(newTreeIter)
-                    .setOldTree(oldTreeIter)
-                    .call();
-
-            diffs.removeIf((DiffEntry diff) -> !diff.getNewPath().endsWith(".java"));
-
-        } catch (GitAPIException e) {
+    public void enableDiskCache() {
+        /*  loads the caches stored by a previous run, if any: a missing or unreadable file only means that
+         *  everything is computed again    */
+        this.diskCache = Boolean.TRUE;
+        var directory = this.getCacheDirectory();
+        try {
+            var locFile = new File(directory, LOC_CACHE_FILE);
+            if (locFile.exists())
+                this.locCache.load(locFile);
+        } catch (IOException e) {
             var logger = Logger.getLogger(JgitManager.class.getName());
             logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
+            this.locCache = new LocCache(LOC_CACHE_SIZE);
+        }
+        try {
+            var diffFile = new File(directory, DIFF_CACHE_FILE);
+            if (diffFile.exists())
+                this.diffCache.load(diffFile);
+        } catch (IOException e) {
+            var logger = Logger.getLogger(JgitManager.class.getName());
+            logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
+            this.diffCache = new DiffStatCache(DIFF_CACHE_SIZE, DiffEngine.settingsOf(this.repository));
         }
-        return diffs;
     }
 
-    public Integer[] countLinesAddedAndDeleted(DiffEntry diffEntry) throws IOException {
+    public File createCacheDirectory() throws IOException {
+        var directory = this.getCacheDirectory();
+        if (!directory.isDirectory() && !directory.mkdirs())
+            throw new IOException("Cannot create cache directory " + directory.getPath());
+        return directory;
+    }
 
-        Integer linesAdded;
-        Integer linesDeleted;
-        linesAdded = 0;
-        linesDeleted = 0;
+    public void storeCaches() throws IOException {
+        if (Boolean.FALSE.equals(this.diskCache))
+            return;
+        var directory = this.createCacheDirectory();
+        this.locCache.store(new File(directory, LOC_CACHE_FILE));
+        this.diffCache.store(new File(directory, DIFF_CACHE_FILE));
+    }
 
-        var df = new DiffFormatter(DisabledOutputStream.INSTANCE);
-        df.setRepository(repository);
-        df.setDiffComparator(RawTextComparator.DEFAULT);
-        df.setDetectRenames(true);
+    public DiffEngine newDiffEngine() {
+        return new DiffEngine(this.repository);
+    }
 
-        for (Edit edit : df.toFileHeader(diffEntry).toEditList()) {
-            linesDeleted += edit.getEndA() - edit.getBeginA();
-            linesAdded += edit.getEndB() - edit.getBeginB();
+    public List<DiffStat> getDiffStats(DiffEngine engine, RevCommit older, RevCommit newer) throws IOException {
+        /*  the differences of a pair of trees are computed only the first time it is found    */
+        var olderTree = older.getTree().getId();
+        var newerTree = newer.getTree().getId();
+        var stats = this.diffCache.get(olderTree, newerTree);
+        if (stats == null) {
+            stats = engine.listDiffStats(older, newer);
+            this.diffCache.put(olderTree, newerTree, stats);
         }
-        return new Integer[]{linesAdded, linesDeleted};
+        return stats;
     }
 
 
@@ -86,93 +116,29 @@ public class JgitManager {
         LOC metric computing method and usefull method to prevent comment's inclusion in count
     ************************************************************************************************** */
 
-    public Integer getLocFileInGivenRelease(String fileName, RevCommit release) throws IOException {
-
-        /*  This function may not count commits line */
-        Integer count = 0;
-        String fileContent;
-        try (var treeWalk = TreeWalk.forPath(this.getRepository(), fileName,
-                release.getTree())) {
-            var blobId = treeWalk.getObjectId(0);
-            try (var objectReader = this.getRepository().newObjectReader()) {
-                var objectLoader = objectReader.open(blobId);
-                byte[] bytes = objectLoader.getBytes();
-                fileContent = new String(bytes, StandardCharsets.UTF_8);
-                String[] lines = fileContent.split("\n");
-
-                /* The following code exclude commits line from count   */
-                Integer i;
-                Boolean openedComment = Boolean.FALSE;
-                for (i = 0; i < lines.length; i++) {
-
-                    String line = lines[i];
-                    // skipping single line comments
-                    if (!line.trim().startsWith("//") || !line.trim().isEmpty()) {
-                        Boolean[] returned = this.isLineValid(line, openedComment);
-                        if (Boolean.TRUE.equals(returned[0]))
-                            count++;
-                        openedComment = returned[1];
-                    }
-                }
+    public Map<String, Integer> getLocOfFilesInRelease(ObjectReader objectReader, RevCommit release)
+            throws IOException {
+        /*  LOC of every java file of the release, with a single walk of its tree   */
+        var locs = new HashMap<String, Integer>();
+        try (var treeWalk = new TreeWalk(objectReader)) {
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(PathSuffixFilter.create(".java"));
+            treeWalk.reset(release.getTree().getId());
+            while (treeWalk.next()) {
+                locs.put(treeWalk.getPathString(), this.getLocOfBlob(objectReader, treeWalk.getObjectId(0)));
             }
         }
-        return count;
-    }
-
-    private Boolean updateQuote(char current, Boolean quotesStillFound){
-        if (current == '"' || current == '\'')
-            return !quotesStillFound;
-        else
-            return quotesStillFound;
+        return locs;
     }
 
-
-    private Boolean[] isLineValid(String line, Boolean previouslyOpened){
-        /*  looking for comments delimiter in the line  */
-        char[] chars = line.trim().toCharArray(); //no initial spaces
-        Integer i;
-        Integer len = chars.length;
-
-        // looking also for /* not in quotes
-        Boolean quoteFound = Boolean.FALSE;
-
-        Boolean nowOpened = previouslyOpened;
-        char current;
-        char next;
-
-        /*  if line's length is == 1, the following loop won't be executed. Just having a check if this is a valid line*/
-        Boolean isValidLine = (len == 1 && Boolean.FALSE.equals(nowOpened)) ;
-
-        for (i = 0; i < len - 1; i++){
-            current = chars[i];
-            next = chars[i + 1];
-            quoteFound = this.updateQuote(current, quoteFound);
-
-            if (current == '/' && next == '*' && Boolean.FALSE.equals(quoteFound)) {
-                // found start delimiter
-                nowOpened = Boolean.TRUE;
-                i = i + 1;
-            }
-
-            else if (current == '*' && next == '/' && Boolean.FALSE.equals(quoteFound)) {
-                //found end delimiter
-                nowOpened = Boolean.FALSE;
-                i = i + 1;
-            }
-            /*  this is the case of a particular line:
-             *   line = "/*comment* / //other comment   */
-            else if (current == '/' && next == '/')
-                break;
-            else{
-                /*  chars[i] is a general char. if not commented opened, the line is valid!!
-                *   current != ' ' is because of possibility of line such as the following:
-                *   line = "/*comment* / //other comment
-                *  */
-                if (Boolean.FALSE.equals(nowOpened) && current != ' ')
-                    isValidLine = Boolean.TRUE;
-            }
+    private Integer getLocOfBlob(ObjectReader objectReader, ObjectId blobId) throws IOException {
+        /*  a blob is counted only the first time it is found: unchanged files share it between releases   */
+        var loc = this.locCache.get(blobId);
+        if (loc == null) {
+            loc = LocCounter.count(objectReader.open(blobId));
+            this.locCache.put(blobId, loc);
         }
-        return new Boolean[]{isValidLine, nowOpened};
+        return loc;
     }
 
     public List<String> filesInRelease(RevCommit revCommit){
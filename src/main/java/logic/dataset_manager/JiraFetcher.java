@@ -0,0 +1,243 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*  Runs a Jira search, page by page: the first page tells how many issues there are, then the other pages are
+ *  requested concurrently. Responses are parsed straight from the stream, one issue at a time: each one becomes
+ *  a JiraTicket before the next is read, so a page is never held as a JSON tree.
+ *
+ *  If a cache directory is given, a search is stored there as a whole, keyed by project and query: its pages are
+ *  downloaded in a temporary directory, which takes the name of the search only once every page is complete. A
+ *  stored search is then read from the files, never mixed with pages of another download. Tickets change on
+ *  the server: a fetcher which refreshes downloads the search again and replaces the stored one.  */
+public class JiraFetcher {
+
+    public static final String DEFAULT_SEARCH_URL = "https://issues.apache.org/jira/rest/api/2/search";
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_CONNECTIONS = 4;
+
+    private final String searchUrl;
+    private final File cacheDirectory;
+    private final boolean refresh;
+
+    public JiraFetcher() {
+        this(DEFAULT_SEARCH_URL, null, false);
+    }
+
+    public JiraFetcher(String searchUrl, File cacheDirectory, boolean refresh) {
+        /*  cacheDirectory may be null: responses are not stored    */
+        this.searchUrl = searchUrl;
+        this.cacheDirectory = cacheDirectory;
+        this.refresh = refresh;
+    }
+
+    public List<JiraTicket> search(String projectName, String jql, String fields) throws IOException {
+        /*  jql and fields must be already encoded for the url, fields must include key, created and versions:
+            issues are returned in the order of the pages   */
+        if (this.cacheDirectory == null)
+            return JiraFetcher.collect((startAt, maxResults) -> {
+                try (var in = this.openPage(jql, fields, startAt, maxResults)) {
+                    return JiraFetcher.readPage(in);
+                }
+            });
+
+        var directory = new File(this.cacheDirectory, projectName + "-" + JiraFetcher.hashOf(jql + "&" + fields));
+        if (!this.refresh && directory.isDirectory()) {
+            try {
+                return JiraFetcher.collect((startAt, maxResults) -> JiraFetcher.readPage(
+                        new File(directory, JiraFetcher.pageName(startAt, maxResults))));
+            } catch (FileNotFoundException | JSONException e) {
+                /*  a page is missing or damaged: the whole search is downloaded again and replaces this one, so
+                    that its pages still come from a single download   */
+                var logger = Logger.getLogger(JiraFetcher.class.getName());
+                logger.log(Level.OFF, e.toString());
+            }
+        }
+
+        Files.createDirectories(this.cacheDirectory.toPath());
+        var download = Files.createTempDirectory(this.cacheDirectory.toPath(), directory.getName() + ".");
+        try {
+            var issues = JiraFetcher.collect((startAt, maxResults) -> {
+                var file = new File(download.toFile(), JiraFetcher.pageName(startAt, maxResults));
+                try (var in = this.openPage(jql, fields, startAt, maxResults)) {
+                    Files.copy(in, file.toPath());
+                }
+                return JiraFetcher.readPage(file);
+            });
+            JiraFetcher.delete(directory.toPath());
+            try {
+                Files.move(download, directory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                /*  stored meanwhile by another run: that search is complete as well    */
+                var logger = Logger.getLogger(JiraFetcher.class.getName());
+                logger.log(Level.OFF, e.toString());
+            }
+            return issues;
+        } finally {
+            JiraFetcher.delete(download);
+        }
+    }
+
+    private static List<JiraTicket> collect(PageSource source) throws IOException {
+        var first = source.read(0, PAGE_SIZE);
+        var total = first.total;
+        /*  the server may return less issues than asked for  */
+        var pageSize = first.maxResults;
+        if (pageSize <= 0)
+            pageSize = PAGE_SIZE;
+
+        List<JiraTicket> issues = new ArrayList<>(total);
+        issues.addAll(first.tickets);
+        if (pageSize >= total)
+            return issues;
+
+        var numOfPages = (total + pageSize - 1) / pageSize;
+        var executor = Executors.newFixedThreadPool(Math.min(MAX_CONNECTIONS, numOfPages - 1));
+        try {
+            List<Future<Page>> pages = new ArrayList<>();
+            int startAt;
+            for (startAt = pageSize; startAt < total; startAt += pageSize) {
+                final var start = startAt;
+                final var size = pageSize;
+                pages.add(executor.submit(() -> source.read(start, size)));
+            }
+            for (Future<Page> page : pages)
+                issues.addAll(page.get().tickets);
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while retrieving issues");
+        } finally {
+            executor.shutdownNow();
+        }
+        return issues;
+    }
+
+    private InputStream openPage(String jql, String fields, int startAt, int maxResults) throws IOException {
+        var url = this.searchUrl + "?jql=" + jql + "&fields=" + fields + "&startAt=" + startAt
+                + "&maxResults=" + maxResults;
+        return new URL(url).openStream();
+    }
+
+    private static String pageName(int startAt, int maxResults) {
+        return startAt + "-" + maxResults + ".json";
+    }
+
+    private static void delete(Path directory) throws IOException {
+        /*  a stored search is a flat directory of pages    */
+        var pages = directory.toFile().listFiles();
+        if (pages == null)
+            return;
+        for (File page : pages)
+            Files.delete(page.toPath());
+        Files.delete(directory);
+    }
+
+    private static String hashOf(String query) {
+        var digest = Constants.newMessageDigest().digest(query.getBytes(StandardCharsets.UTF_8));
+        return ObjectId.fromRaw(digest).name();
+    }
+
+    private static Page readPage(File file) throws IOException {
+        try (var in = new FileInputStream(file)) {
+            return JiraFetcher.readPage(in);
+        }
+    }
+
+    private static Page readPage(InputStream in) throws JSONException {
+        /*  the members of the response are read one by one: only total, maxResults and issues are kept   */
+        var tokener = new JSONTokener(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        var page = new Page();
+        if (tokener.nextClean() != '{')
+            throw tokener.syntaxError("A search response must begin with '{'");
+        var c = tokener.nextClean();
+        while (c != '}') {
+            tokener.back();
+            var name = tokener.nextValue().toString();
+            if (tokener.nextClean() != ':')
+                throw tokener.syntaxError("Expected a ':' after a key");
+            switch (name) {
+                case "total":
+                    page.total = ((Number) tokener.nextValue()).intValue();
+                    break;
+                case "maxResults":
+                    page.maxResults = ((Number) tokener.nextValue()).intValue();
+                    break;
+                case "issues":
+                    JiraFetcher.readIssues(tokener, page.tickets);
+                    break;
+                default:
+                    tokener.nextValue();
+                    break;
+            }
+            c = tokener.nextClean();
+            if (c == ',')
+                c = tokener.nextClean();
+            else if (c != '}')
+                throw tokener.syntaxError("Expected a ',' or '}'");
+        }
+        return page;
+    }
+
+    private static void readIssues(JSONTokener tokener, List<JiraTicket> tickets) throws JSONException {
+        if (tokener.nextClean() != '[')
+            throw tokener.syntaxError("Issues must be an array");
+        var c = tokener.nextClean();
+        while (c != ']') {
+            tokener.back();
+            /*  a single issue is a tree: it's dropped as soon as its ticket is built  */
+            tickets.add(JiraFetcher.toTicket(new JSONObject(tokener)));
+            c = tokener.nextClean();
+            if (c == ',')
+                c = tokener.nextClean();
+            else if (c != ']')
+                throw tokener.syntaxError("Expected a ',' or ']'");
+        }
+    }
+
+    private static JiraTicket toTicket(JSONObject issue) {
+        var fields = issue.getJSONObject("fields");
+        var versions = fields.getJSONArray("versions");
+        var names = new String[versions.length()];
+        int i;
+        for (i = 0; i < names.length; i++)
+            names[i] = versions.getJSONObject(i).getString("name");
+        return new JiraTicket(issue.getString("key"), JiraTicket.parseDate(fields.getString("created")), names);
+    }
+
+    private interface PageSource {
+        Page read(int startAt, int maxResults) throws IOException;
+    }
+
+    private static class Page {
+        private int total;
+        private int maxResults = PAGE_SIZE;
+        private final List<JiraTicket> tickets = new ArrayList<>();
+    }
+}
@@ -0,0 +1,49 @@
+package logic.dataset_manager;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/*  What is kept of a Jira issue: its key, its creation date and the names of its affected versions. Names are
+ *  interned, since many issues share the same versions.  */
+public class JiraTicket {
+
+    /*  immutable, so it is shared by all the threads parsing the pages   */
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSZ");
+    /*  creation date of an issue whose date can't be parsed    */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final String key;
+    private final long created;
+    private final String[] affectedVersions;
+
+    public JiraTicket(String key, long created, String[] affectedVersions) {
+        this.key = key;
+        this.created = created;
+        this.affectedVersions = affectedVersions;
+        int i;
+        for (i = 0; i < this.affectedVersions.length; i++)
+            this.affectedVersions[i] = this.affectedVersions[i].intern();
+    }
+
+    public static long parseDate(String date) {
+        try {
+            return OffsetDateTime.parse(date, DATE_FORMAT).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+
+    public String getKey() {
+        return this.key;
+    }
+
+    public long getCreated() {
+        /*  epoch millis, or NO_DATE    */
+        return this.created;
+    }
+
+    public String[] getAffectedVersions() {
+        return this.affectedVersions;
+    }
+}
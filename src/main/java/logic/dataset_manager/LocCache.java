@@ -0,0 +1,67 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+
+import java.io.*;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/*  LOC of the blobs already counted, keyed by blob id: a file which doesn't change between two releases keeps
+ *  its blob, so it is counted only once. The least recently used blobs are dropped once maxEntries is reached. */
+public class LocCache {
+
+    private static final int FILE_VERSION = 1;
+
+    private final Map<ObjectId, Integer> locs;
+
+    public LocCache(int maxEntries) {
+        this.locs = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<ObjectId, Integer> eldest) {
+                return this.size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized Integer get(AnyObjectId blobId) {
+        return this.locs.get(blobId);
+    }
+
+    public synchronized void put(AnyObjectId blobId, Integer loc) {
+        this.locs.put(blobId.copy(), loc);
+    }
+
+    public synchronized int size() {
+        return this.locs.size();
+    }
+
+    public synchronized void load(File file) throws IOException {
+        /*  file format: version, number of entries, then (raw blob id, loc) for each entry   */
+        try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION)
+                throw new IOException("Unsupported LOC cache: " + file.getPath());
+            var entries = in.readInt();
+            var raw = new byte[Constants.OBJECT_ID_LENGTH];
+            int i;
+            for (i = 0; i < entries; i++) {
+                in.readFully(raw);
+                this.locs.put(ObjectId.fromRaw(raw), in.readInt());
+            }
+        }
+    }
+
+    public synchronized void store(File file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(FILE_VERSION);
+            out.writeInt(this.locs.size());
+            var raw = new byte[Constants.OBJECT_ID_LENGTH];
+            for (Map.Entry<ObjectId, Integer> entry : this.locs.entrySet()) {
+                entry.getKey().copyRawTo(raw, 0);
+                out.write(raw);
+                out.writeInt(entry.getValue());
+            }
+        }
+    }
+}
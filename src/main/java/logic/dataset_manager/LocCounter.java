@@ -0,0 +1,219 @@
+package logic.dataset_manager;
+
+import org.eclipse.jgit.lib.ObjectLoader;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/*  Counts the lines of a java file which are not comments, reading the raw bytes of its blob.
+ *
+ *  It is a byte level state machine, so no line is ever materialized. The rules are the ones the line based
+ *  implementation used:
+ *   - a line is trimmed (characters <= ' ' are removed from both ends);
+ *   - a single character line is valid if no comment is opened;
+ *   - otherwise each character but the last is examined with its successor: a quote toggles the quoted
+ *     state, an unquoted "/*" opens a comment and an unquoted "*" + "/" closes it (both characters are
+ *     consumed), "//" ends the line, and any other character different from ' ' makes the line valid
+ *     if no comment is opened.
+ *  Multi-byte UTF-8 characters (and malformed sequences, which the decoder replaced) are handled as the
+ *  characters the decoded String had.    */
+public class LocCounter {
+
+    private static final int NONE = -1;
+    /*  any non ASCII character: it is never a delimiter  */
+    private static final int OTHER = 0x100;
+    private static final int BUFFER_SIZE = 8192;
+
+    private int count = 0;
+    private boolean opened = false;
+
+    // state of the current line
+    private boolean started;
+    private boolean ended;
+    private boolean quoted;
+    private boolean valid;
+    private int characters;
+    private int pending;
+    private int whitespaces;
+    private boolean tabsFound;
+    private int continuations;
+    private boolean surrogates;
+    private int lead;
+
+    LocCounter(){
+        this.resetLine();
+    }
+
+    public static int count(ObjectLoader loader) throws IOException {
+        var counter = new LocCounter();
+        if (loader.isLarge()) {
+            try (var stream = loader.openStream()) {
+                counter.feed(stream);
+            }
+        }
+        else {
+            byte[] bytes = loader.getCachedBytes();
+            counter.feed(bytes, 0, bytes.length);
+        }
+        return counter.finish();
+    }
+
+    void feed(InputStream stream) throws IOException {
+        var buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = stream.read(buffer)) != -1)
+            this.feed(buffer, 0, read);
+    }
+
+    void feed(byte[] bytes, int offset, int length) {
+        int i;
+        for (i = offset; i < offset + length; i++)
+            this.nextByte(bytes[i] & 0xFF);
+    }
+
+    int finish() {
+        this.endLine();
+        return this.count;
+    }
+
+    private void nextByte(int b) {
+        if (b == '\n') {
+            this.endLine();
+            return;
+        }
+        if ((b & 0xC0) == 0x80 && this.continuations > 0 && LocCounter.isValidContinuation(this.lead, b)) {
+            // still the same character: a complete 4 bytes sequence is decoded as a surrogate pair
+            this.continuations--;
+            this.lead = NONE;
+            if (this.continuations == 0 && this.surrogates)
+                this.nextCharacter(OTHER);
+            return;
+        }
+        this.surrogates = false;
+        if (b < 0x80) {
+            this.continuations = 0;
+            this.nextCharacter(b);
+        }
+        else if ((b & 0xC0) == 0x80) {
+            // unexpected continuation byte: decoded as a replacement character
+            this.continuations = 0;
+            this.nextCharacter(OTHER);
+        }
+        else if (b < 0xC2 || b > 0xF4) {
+            // never a valid lead byte: decoded as a replacement character
+            this.continuations = 0;
+            this.nextCharacter(OTHER);
+        }
+        else {
+            this.surrogates = b >= 0xF0;
+            this.lead = b;
+            this.continuations = b >= 0xF0 ? 3 : (b >= 0xE0 ? 2 : 1);
+            this.nextCharacter(OTHER);
+        }
+    }
+
+    private static boolean isValidContinuation(int lead, int b) {
+        /*  the second byte of some sequences is restricted, to exclude overlong encodings: lead is
+         *  NONE after the second byte  */
+        switch (lead) {
+            case 0xE0:
+                return b >= 0xA0;
+            case 0xF0:
+                return b >= 0x90;
+            case 0xF4:
+                return b <= 0x8F;
+            default:
+                return true;
+        }
+    }
+
+    private void nextCharacter(int c) {
+        if (c <= ' ') {
+            /*  whitespaces are only examined if something follows them in the line: trailing ones are trimmed */
+            if (this.started) {
+                this.whitespaces++;
+                if (c != ' ')
+                    this.tabsFound = true;
+            }
+            return;
+        }
+        if (this.whitespaces > 0)
+            this.flushWhitespaces();
+        this.started = true;
+        this.nextUnit(c);
+    }
+
+    private void flushWhitespaces() {
+        /*  each whitespace is examined with its successor: none of them can be part of a delimiter, so the
+         *  last one only validates the line (if it isn't a space) and nothing remains pending   */
+        this.characters = Math.min(this.characters + this.whitespaces, 2);
+        if (!this.ended) {
+            if (this.pending != NONE)
+                this.examine(this.pending, ' ');
+            if (this.tabsFound && !this.opened)
+                this.valid = true;
+            this.pending = NONE;
+        }
+        this.whitespaces = 0;
+        this.tabsFound = false;
+    }
+
+    private void nextUnit(int c) {
+        this.characters = Math.min(this.characters + 1, 2);
+        if (this.ended)
+            return;
+        if (this.pending == NONE)
+            this.pending = c;
+        else
+            this.examine(this.pending, c);
+    }
+
+    private void examine(int current, int next) {
+        if (current == '"' || current == '\'')
+            this.quoted = !this.quoted;
+
+        if (current == '/' && next == '*' && !this.quoted) {
+            // found start delimiter: next is consumed
+            this.opened = true;
+            this.pending = NONE;
+        }
+        else if (current == '*' && next == '/' && !this.quoted) {
+            // found end delimiter: next is consumed
+            this.opened = false;
+            this.pending = NONE;
+        }
+        else if (current == '/' && next == '/') {
+            this.ended = true;
+            this.pending = NONE;
+        }
+        else {
+            if (!this.opened && current != ' ')
+                this.valid = true;
+            this.pending = next;
+        }
+    }
+
+    private void endLine() {
+        if (this.started) {
+            /*  a single character is never examined: the line is valid if it isn't in a comment */
+            var isValidLine = this.characters == 1 ? !this.opened : this.valid;
+            if (isValidLine)
+                this.count++;
+        }
+        this.resetLine();
+    }
+
+    private void resetLine() {
+        this.started = false;
+        this.ended = false;
+        this.quoted = false;
+        this.valid = false;
+        this.characters = 0;
+        this.pending = NONE;
+        this.whitespaces = 0;
+        this.tabsFound = false;
+        this.continuations = 0;
+        this.surrogates = false;
+        this.lead = NONE;
+    }
+}
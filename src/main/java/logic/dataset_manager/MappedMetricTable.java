@@ -0,0 +1,99 @@
+package logic.dataset_manager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*  MetricTable stored in a memory mapped file, for repositories whose metrics don't fit the heap: only the
+ *  pages in use are kept in memory by the operating system.
+ *
+ *  Each cell is a fixed size record (long columns first, then int columns) at position
+ *  row * numOfReleases + release. The file is mapped in chunks of CELLS_PER_CHUNK records, since a single
+ *  buffer can't map more than 2GB: chunks are added as rows are, and a record never spans two chunks.
+ *  Cells are written with absolute puts, so releases computed in parallel don't interfere.    */
+public class MappedMetricTable extends MetricTable {
+
+    private static final int CELLS_PER_CHUNK = 1 << 20;
+
+    private final int[] offsets;
+    private final int recordSize;
+    private final File file;
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks;
+
+    public MappedMetricTable(int numOfReleases, File file) throws IOException {
+        super(numOfReleases);
+        this.offsets = new int[Column.values().length];
+        var offset = 0;
+        for (Column c : Column.values())
+            if (c.isWide()) {
+                this.offsets[c.ordinal()] = offset;
+                offset += Long.BYTES;
+            }
+        for (Column c : Column.values())
+            if (!c.isWide()) {
+                this.offsets[c.ordinal()] = offset;
+                offset += Integer.BYTES;
+            }
+        this.recordSize = offset;
+
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.chunks = new ArrayList<>();
+    }
+
+    @Override
+    protected void ensureCapacity(int minRows) {
+        var cells = (long) minRows * this.numOfReleases;
+        var chunkSize = (long) CELLS_PER_CHUNK * this.recordSize;
+        try {
+            /*  mapping past the end of the file extends it with zeros   */
+            while ((long) this.chunks.size() * CELLS_PER_CHUNK < cells)
+                this.chunks.add(this.channel.map(FileChannel.MapMode.READ_WRITE,
+                        this.chunks.size() * chunkSize, chunkSize));
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot map " + this.file.getPath(), e);
+        }
+    }
+
+    @Override
+    public long get(Column column, int row, int release) {
+        var cell = (long) row * this.numOfReleases + release;
+        var chunk = this.chunks.get((int) (cell / CELLS_PER_CHUNK));
+        var position = (int) (cell % CELLS_PER_CHUNK) * this.recordSize + this.offsets[column.ordinal()];
+        return column.isWide() ? chunk.getLong(position) : chunk.getInt(position);
+    }
+
+    @Override
+    public void set(Column column, int row, int release, long value) {
+        var cell = (long) row * this.numOfReleases + release;
+        var chunk = this.chunks.get((int) (cell / CELLS_PER_CHUNK));
+        var position = (int) (cell % CELLS_PER_CHUNK) * this.recordSize + this.offsets[column.ordinal()];
+        if (column.isWide())
+            chunk.putLong(position, value);
+        else
+            chunk.putInt(position, (int) value);
+    }
+
+    @Override
+    public void close() {
+        /*  the mapping is released by the garbage collector: the file is just removed   */
+        this.chunks.clear();
+        try {
+            this.channel.close();
+            Files.deleteIfExists(this.file.toPath());
+        } catch (IOException e) {
+            var logger = Logger.getLogger(MappedMetricTable.class.getName());
+            logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
+        }
+    }
+}
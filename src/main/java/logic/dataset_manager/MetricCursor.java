@@ -0,0 +1,47 @@
+package logic.dataset_manager;
+
+import java.util.List;
+
+/*  Iterates the files of a release, reading their metrics straight from the MetricTable: nothing is built for
+ *  the files which don't exist in the release.
+ *
+ *      var cursor = files.cursor(releaseIndex);
+ *      while (cursor.next())
+ *          use(cursor.getName(), cursor.get(MetricTable.Column.LOC), cursor.isBuggy());    */
+public class MetricCursor {
+
+    private final List<ReleaseFile> files;
+    /*  positions in files of the files of the release  */
+    private final int[] positions;
+    private final MetricTable table;
+    private final int release;
+    private int position;
+    private ReleaseFile current;
+
+    MetricCursor(List<ReleaseFile> files, int[] positions, MetricTable table, Integer releaseIndex) {
+        this.files = files;
+        this.positions = positions;
+        this.table = table;
+        this.release = releaseIndex - 1;
+        this.position = -1;
+        this.current = null;
+    }
+
+    public boolean next() {
+        /*  moves to the next file of the release: false if there are no more files    */
+        this.current = ++this.position < this.positions.length ? this.files.get(this.positions[this.position]) : null;
+        return this.current != null;
+    }
+
+    public String getName() {
+        return this.current.getNames()[this.release];
+    }
+
+    public long get(MetricTable.Column column) {
+        return this.table.get(column, this.current.getRow(), this.release);
+    }
+
+    public boolean isBuggy() {
+        return this.table.isBuggy(this.current.getRow(), this.release);
+    }
+}
@@ -0,0 +1,99 @@
+package logic.dataset_manager;
+
+import java.io.Closeable;
+import java.util.BitSet;
+
+/*  Metrics of every file in every release: a file is a row, and each (row, release) cell has a value for each
+ *  column. Bugginess is a bitset for each release, with one bit for each row: cells may outnumber the int
+ *  indexes of a single bitset. Where the values are stored is up to the implementation: see HeapMetricTable
+ *  and MappedMetricTable.
+ *
+ *  Rows are added while the files are found (see ReleaseFileManager), before any metric is computed: releases
+ *  may then be computed in parallel, since each one writes only its own cells. Bugginess is written by the
+ *  labeling, which is sequential.   */
+public abstract class MetricTable implements Closeable {
+
+    /*  in the order of the dataset columns */
+    public enum Column {
+        LOC(false),
+        NR(false),
+        NFIX(false),
+        NAUTH(false),
+        LOC_ADDED(true),
+        MAX_LOC_ADDED(false),
+        CHURN(true),
+        MAX_CHURN(false),
+        AGE(false);
+
+        /*  sums over revisions may not fit an int   */
+        private final boolean wide;
+
+        Column(boolean wide) {
+            this.wide = wide;
+        }
+
+        public boolean isWide() {
+            return this.wide;
+        }
+    }
+
+    protected final int numOfReleases;
+    protected int rows;
+    private final BitSet[] buggy;
+
+    protected MetricTable(int numOfReleases) {
+        this.numOfReleases = numOfReleases;
+        this.rows = 0;
+        this.buggy = new BitSet[numOfReleases];
+        int i;
+        for (i = 0; i < numOfReleases; i++)
+            this.buggy[i] = new BitSet();
+    }
+
+    public int getNumOfReleases() {
+        return this.numOfReleases;
+    }
+
+    public int getNumOfRows() {
+        return this.rows;
+    }
+
+    public int addRow() {
+        /*  returns the new row: all its metrics are 0 and it is not buggy  */
+        this.ensureCapacity(this.rows + 1);
+        return this.rows++;
+    }
+
+    public void trimToSize() {
+        /*  releases the capacity reserved for rows which have not been added, if the storage can   */
+    }
+
+    protected abstract void ensureCapacity(int minRows);
+
+    public abstract long get(Column column, int row, int release);
+
+    public abstract void set(Column column, int row, int release, long value);
+
+    public void add(Column column, int row, int release, long value) {
+        this.set(column, row, release, this.get(column, row, release) + value);
+    }
+
+    public void max(Column column, int row, int release, long value) {
+        /*  keeps the maximum between the current value and the given one  */
+        if (this.get(column, row, release) < value)
+            this.set(column, row, release, value);
+    }
+
+    public boolean isBuggy(int row, int release) {
+        return this.buggy[release].get(row);
+    }
+
+    public void setBuggy(int row, int release) {
+        this.buggy[release].set(row);
+    }
+
+    @Override
+    public void close() {
+        /*  nothing to release by default   */
+    }
+}
@@ -63,28 +63,21 @@ public class ProcessControlChartDataset extends Dataset {
                 this.fixedBugs.add(bug);
             }
         }
+        this.indexFixCommits();
     }
 
     //*****************************************************************************************************
 
     public List<Commit> retrieveCommitsBetweenDates(Date initialDate, Date finalDate){
-        var list = new ArrayList<Commit>();
-
-        Date currDate;
-        for (Commit c : this.commits){
-            currDate = c.getDate();
-            if (finalDate.before(currDate))
-                break;
-
-            if (initialDate.before(currDate) && currDate.before(finalDate))
-                list.add(c);
-        }
-        return list;
+        /*  commits such that initialDate < commit date < finalDate    */
+        var from = this.commitTimeline.upperBound(initialDate);
+        var to = Math.max(from, this.commitTimeline.lowerBound(finalDate));
+        return new ArrayList<>(this.commits.subList(from, to));
     }
 
     private void updateFixBugNum(ProcessControlChartEntry older,List<Commit> list){
         /*  given a list of commit, this method will remove the non-fixBug commits  */
-        list.removeIf(commit -> commit.isFixCommit(this.fixedBugs) == null);
+        list.removeIf(commit -> commit.isFixCommit(this.fixCommits) == null);
         older.setNumberOfFixCommits(list.size());
     }
 
@@ -6,25 +6,111 @@ import logic.exception.InvalidRangeException;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
 import org.eclipse.jgit.lib.Ref;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/*  Metrics may be kept in a memory mapped file (see ProportionBean.isMappedMetrics): close the dataset once
+ *  they have been written or evaluated, so that the file is removed.   */
+public class ProportionDataset extends Dataset implements Closeable {
+    private static final String SNAPSHOT_FILE = "dataset.snapshot";
 
-public class ProportionDataset extends Dataset {
     private ArrayList<Release> releases;
+    /*  dates of this.releases  */
+    private Timeline releaseTimeline;
     private ReleaseFileManager files;
+    private MetricTable metrics;
+    /*  in incremental mode, the first restoredReleases releases are restored from a DatasetSnapshot  */
+    private Boolean incremental;
+    private int restoredReleases;
+    private JiraFetcher jiraFetcher;
 
     //***********************************************************************************************************
     // Constructor and relative methods
     public ProportionDataset(ProportionBean bean) throws GitAPIException, IOException, InvalidRangeException {
+        this(bean, true);
+    }
+
+    private ProportionDataset(ProportionBean bean, boolean withFiles)
+            throws GitAPIException, IOException, InvalidRangeException {
         super(bean);
-        var jgitManager = new JgitManager(bean.getDirectory().getPath());
+        if (withFiles && Boolean.TRUE.equals(bean.isDiskCacheEnabled()))
+            this.jgitManager.enableDiskCache();
 
         this.removeRevertCommits();
-        this.initializeReleaseList(jgitManager);
+        this.initializeReleaseList(this.jgitManager);
 
+        this.jiraFetcher = this.createJiraFetcher(bean);
         this.initializeBugsList(bean.getProject());
 
-        this.files = new ReleaseFileManager(jgitManager, this.releases);
+        this.incremental = bean.isIncremental();
+        if (withFiles)
+            this.initializeFiles(bean);
+    }
+
+    public static ProportionDataset withoutFiles(ProportionBean bean)
+            throws GitAPIException, IOException, InvalidRangeException {
+        /*  only releases and bugs: the trees of the releases are not read and there are no metrics, so features
+            can't be computed nor written. Enough to compute P: see ProportionColdStart.computeProjectP   */
+        return new ProportionDataset(bean, false);
+    }
+
+    private void initializeFiles(ProportionBean bean) throws IOException {
+        var snapshot = Boolean.TRUE.equals(this.incremental) ? this.loadSnapshot() : null;
+        this.metrics = this.createMetricTable(bean);
+        try {
+            if (snapshot != null) {
+                this.files = new ReleaseFileManager(this.jgitManager, this.releases, snapshot, this.metrics);
+                this.restoredReleases = snapshot.getNumOfReleases();
+            }
+            else {
+                this.files = new ReleaseFileManager(this.jgitManager, this.releases, this.metrics);
+                this.restoredReleases = 0;
+            }
+        } catch (RuntimeException e) {
+            this.close();
+            throw e;
+        }
+    }
+
+    private JiraFetcher createJiraFetcher(ProportionBean bean) {
+        /*  Jira responses are cached only in the directory given by the bean. In incremental mode the search is
+            always downloaded again: the new releases must be labeled with the current bugs    */
+        return new JiraFetcher(bean.getJiraSearchUrl(), bean.getJiraCacheDirectory(),
+                Boolean.TRUE.equals(bean.isIncremental()));
+    }
+
+    private MetricTable createMetricTable(ProportionBean bean) throws IOException {
+        /*  metrics are kept on the heap, unless the bean asks for a memory mapped file: it is created in the
+         *  cache directory and removed by close, or on exit if the dataset is never closed */
+        if (Boolean.TRUE.equals(bean.isMappedMetrics())) {
+            var file = File.createTempFile("metrics", ".bin", this.jgitManager.createCacheDirectory());
+            file.deleteOnExit();
+            return new MappedMetricTable(this.releases.size(), file);
+        }
+        return new HeapMetricTable(this.releases.size());
+    }
+
+    private DatasetSnapshot loadSnapshot() {
+        /*  null if there is no usable snapshot: the dataset is then computed from scratch  */
+        var file = new File(this.jgitManager.getCacheDirectory(), SNAPSHOT_FILE);
+        if (!file.exists())
+            return null;
+        try {
+            var snapshot = DatasetSnapshot.load(file);
+            return snapshot.isPrefixOf(this.releases) ? snapshot : null;
+        } catch (IOException e) {
+            var logger = Logger.getLogger(ProportionDataset.class.getName());
+            logger.log(Level.OFF, Arrays.toString(e.getStackTrace()));
+            return null;
+        }
     }
 
     private void removeRevertCommits() {
@@ -45,10 +131,9 @@ public class ProportionDataset extends Dataset {
             }
         }
 
-        for (Commit c : commitsToRemove){
-            if (c != null) //may be null if findCommitFromName(id) returns null
-                this.commits.remove(c);
-        }
+        //may contain null if findCommitFromName(id) returns null
+        commitsToRemove.removeIf(Objects::isNull);
+        this.removeCommits(commitsToRemove);
     }
 
 
@@ -69,6 +154,7 @@ public class ProportionDataset extends Dataset {
             Date d2 = o2.date;
             return d1.compareTo(d2);
         });
+        this.releaseTimeline = new Timeline(this.releases);
         for (i = 0; i < len; i++) {
             Release cur = this.releases.get(i);
             cur.setIndex(i + 1);
@@ -78,6 +164,7 @@ public class ProportionDataset extends Dataset {
 
     public void removeHalfRelease(){
         this.releases.removeIf(r -> r.getIndex() > this.releases.size() / 2);
+        this.releaseTimeline = new Timeline(this.releases);
     }
 
     private List<Commit> retrieveCommitsBetweenReleases(Integer endIndexRelease)
@@ -89,7 +176,6 @@ public class ProportionDataset extends Dataset {
         if (endIndexRelease < 1)
             throw new InvalidRangeException("endIndexRelease should be greater than 0");
 
-        ArrayList<Commit> comList = new ArrayList<>();
         // The release 1 is stored in ArrayList.get(0)
         endIndexRelease--;
         Integer startIndexRelease = endIndexRelease - 1;
@@ -100,21 +186,17 @@ public class ProportionDataset extends Dataset {
             startDate = this.getCommit(0).date;
         var endDate = this.getRelease(endIndexRelease).date;
 
-        for (Commit currCommit : this.commits){
-            var currDate = currCommit.date;
-            // checking if currDate is in a correct interval:
-            if (startDate.compareTo(currDate) <= 0
-                    && currDate.compareTo(endDate) < 0)
-                comList.add(currCommit);
-        }
-        return comList;
+        // commits such that startDate <= commit date < endDate
+        var from = this.commitTimeline.lowerBound(startDate);
+        var to = Math.max(from, this.commitTimeline.lowerBound(endDate));
+        return new ArrayList<>(this.commits.subList(from, to));
     }
 
 
     @Override
     protected void initializeBugsList(String projectName) throws IOException {
 
-        var retrieveInformations = new RetrieveInformations(projectName);
+        var retrieveInformations = new RetrieveInformations(projectName, this.jiraFetcher);
         ArrayList<JiraBeanInformations> informations = (ArrayList<JiraBeanInformations>) retrieveInformations.getInformations();
 
         List<Commit> relatives;
@@ -140,6 +222,7 @@ public class ProportionDataset extends Dataset {
             Date d2 = b2.getFixedVersion().date;
             return d1.compareTo(d2);
         });
+        this.indexFixCommits();
     }
 
 
@@ -165,49 +248,37 @@ public class ProportionDataset extends Dataset {
     }
 
     private Release findOpeningVersion(Date openingDate) {
-        Integer i;
-        Release curr = null;
-        var previousReleaseDate = new Date(0);
-        for (i = 0; i < this.releases.size(); i++){
-            curr = this.releases.get(i);
-            if (i != 0)
-                previousReleaseDate = this.releases.get(i - 1).date;
-
-            if (previousReleaseDate.before(openingDate) && openingDate.before(curr.date))
-                break;
-        }
-        return curr;
+        return this.findMembershipRelease(openingDate);
     }
 
     private Release findFixedVersion(List<Commit> relatives) {
         /*  this method take the list of commit that are relative to a given bug and find-out the
             last (in time) one's membership release     */
 
-        Integer i;
         //  finding the last one, assuming relavise len > 0
         Commit last = null;
         for (Commit c : relatives){
             if (last == null || last.date.before(c.date))
                 last = c;
         }
-        //  finding membership release:
-        /*  to check if membership release is the firstOne i need to check only if the
-         *   commit's date is before than the release.get(0) date    */
-        var initialDate = new Date(0);
-        Date endingDate;
-        Release membershipRelease = null;
-
         assert last != null;
-        for (i = 0; i < this.releases.size(); i++){
-            membershipRelease =this.releases.get(i);
-            endingDate = membershipRelease.date;
-            if ( i != 0)
-                initialDate = this.releases.get(i - 1).date;
+        return this.findMembershipRelease(last.date);
+    }
 
-            if (initialDate.before(last.date) && last.date.before(endingDate))
-                break;
+    private Release findMembershipRelease(Date date) {
+        /*  returns the release r such that (previous release date) < date < (r date), where the first release
+         *  has no previous one but the epoch. If there is no such release, the last one is returned (null if
+         *  there are no releases).
+         *  Releases are sorted: r can only be the first release after date  */
+        if (this.releases.isEmpty())
+            return null;
+        var k = this.releaseTimeline.upperBound(date);
+        if (k < this.releases.size()) {
+            var previousTime = k == 0 ? 0L : this.releaseTimeline.getTime(k - 1);
+            if (previousTime < date.getTime())
+                return this.releases.get(k);
         }
-        return membershipRelease;
+        return this.releases.get(this.releases.size() - 1);
     }
 
 
@@ -242,10 +313,61 @@ public class ProportionDataset extends Dataset {
     }
 
     public void computeFeatures() throws IOException {
-        Release prev = null;
-        for (Release r : this.releases) {
-            this.files = r.computeMetrics(prev, this.fixedBugs, this.files);
-            prev = r;
+        this.computeFeatures(1);
+    }
+
+    public void computeFeatures(int workers) throws IOException {
+        /*  with more than one worker, releases are computed in parallel: each one only needs the commit of the
+         *  previous release, which is already known. Restored releases only need the fixes of this run    */
+        for (Release r : this.releases.subList(0, this.restoredReleases))
+            r.replayFixes(this.fixCommits);
+
+        List<Release> toCompute = this.releases.subList(this.restoredReleases, this.releases.size());
+        Release prev = this.restoredReleases > 0 ? this.releases.get(this.restoredReleases - 1) : null;
+        if (workers <= 1) {
+            for (Release r : toCompute) {
+                this.files = r.computeMetrics(prev, this.fixCommits, this.files);
+                prev = r;
+            }
+        }
+        else
+            this.computeFeaturesInParallel(workers, toCompute, prev);
+
+        for (Release r : toCompute)
+            r.mergeAdditionDates();
+
+        this.jgitManager.storeCaches();
+        if (Boolean.TRUE.equals(this.incremental)) {
+            var directory = this.jgitManager.createCacheDirectory();
+            new DatasetSnapshot(this.releases, this.files).store(new File(directory, SNAPSHOT_FILE));
+        }
+    }
+
+    private void computeFeaturesInParallel(int workers, List<Release> toCompute, Release first)
+            throws IOException {
+        var executor = Executors.newFixedThreadPool(Math.max(1, Math.min(workers, toCompute.size())));
+        try {
+            List<Future<ReleaseFileManager>> results = new ArrayList<>();
+            Release prev = first;
+            for (Release r : toCompute) {
+                final var previous = prev;
+                results.add(executor.submit(() -> r.computeMetrics(previous, this.fixCommits, this.files)));
+                prev = r;
+            }
+            for (Future<ReleaseFileManager> result : results)
+                result.get();
+
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while computing features");
+        } finally {
+            executor.shutdownNow();
         }
     }
 
@@ -256,4 +378,15 @@ public class ProportionDataset extends Dataset {
     public List<ReleaseFile> getFiles() {
         return this.files.getFileList();
     }
+
+    public ReleaseFileManager getFileManager() {
+        return this.files;
+    }
+
+    @Override
+    public void close() {
+        /*  releases the metrics: the dataset can't be used after it    */
+        if (this.metrics != null)
+            this.metrics.close();
+    }
 }
@@ -1,6 +1,7 @@
 package logic.dataset_manager;
 
 import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.ObjectReader;
 import org.eclipse.jgit.lib.Ref;
 
 import java.util.*;
@@ -16,6 +17,16 @@ public class Release extends Commit {
     /* List of all commits between Release(index) and Release(index + 1)    */
     ArrayList<Commit> commits;
 
+    /*  addition dates found while computing metrics, merged into the files by mergeAdditionDates:
+     *  addedFiles stores the earliest addition date of each file added in this release, touchedFiles the
+     *  earliest one known by this release when the file has been touched for the last time.   */
+    private Map<ReleaseFile, Date> addedFiles;
+    private Map<ReleaseFile, Date> touchedFiles;
+
+    /*  tracked files touched by each commit of this release: what nFix and the files touched by the bugs need.
+     *  It is stored by DatasetSnapshot, so a restored release can be labeled again without diffing   */
+    private Map<Commit, List<FileTouch>> touches;
+
     //--------------------------------------------------------------------------------
 
     public Release(Ref ref, JgitManager jgitManager){
@@ -27,21 +38,11 @@ public class Release extends Commit {
         this.index = index;
     }
 
-    private ReleaseFile findFromName(String name, List<ReleaseFile> files){
-        ReleaseFile releaseFile = null;
-        for (ReleaseFile r : files){
-            if (r.isThisFile(name).equals(Boolean.TRUE)){
-                releaseFile = r;
-                break;
-            }
-        }
-        return releaseFile;
-    }
-
-
-    public void setEachFileLoc(ReleaseFileManager files) throws IOException {
+    private void setEachFileLoc(ObjectReader reader, ReleaseFileManager files) throws IOException {
+        /*  one walk of the release tree instead of a path lookup for each file    */
+        var releaseLocs = this.jgitManager.getLocOfFilesInRelease(reader, this.revCommit);
         for (ReleaseFile f : files.getFileList())
-            f.computeLoc(this.revCommit, this.getIndex());
+            f.setLoc(releaseLocs, this.getIndex());
     }
 
 
@@ -62,8 +63,8 @@ public class Release extends Commit {
     }
 
 
-    private void updateFileMetrics(ReleaseFile rf, Commit newer, DiffEntry diff,
-                                   List<BugTicket> fixedBugs) throws IOException {
+    private void updateFileMetrics(ReleaseFile rf, Commit newer, DiffStat diff,
+                                   Map<Commit, BugTicket> fixCommits) {
         if (rf != null) {
             /*  it can be null if a file is added in a revision commit and deleted in another
              *  revision commit before release commit:
@@ -76,21 +77,20 @@ public class Release extends Commit {
             //nr
             rf.updateNumberOfRevision(i);
             //nauth
-            rf.addEditors(i, newer.revCommit.getAuthorIdent());
+            rf.addEditors(i, newer.getAuthorId());
             rf.updateNauth(i);
             //locAdded
-            Integer[] lines = this.jgitManager.countLinesAddedAndDeleted(diff);
-            rf.updateLocAdded(i, lines[0]);
+            rf.updateLocAdded(i, diff.getLinesAdded());
             //churn
-            rf.updateChurn(i, lines[0] - lines[1]);
+            rf.updateChurn(i, diff.getLinesAdded() - diff.getLinesDeleted());
             //nfix
-            BugTicket bug = newer.isFixCommit(fixedBugs);
-            if (bug != null) {
-                rf.updateNfix(i);
-                bug.addFileTouched(diff);
-            }
-            //age
-            rf.computeAge(i, this.date);
+            var touch = new FileTouch(rf, diff);
+            this.touches.computeIfAbsent(newer, c -> new ArrayList<>()).add(touch);
+            BugTicket bug = newer.isFixCommit(fixCommits);
+            if (bug != null)
+                touch.updateFix(i, bug);
+            //age: computed by mergeAdditionDates, once the previous releases are merged
+            this.touchedFiles.put(rf, this.addedFiles.get(rf));
         }
     }
 
@@ -103,17 +103,31 @@ public class Release extends Commit {
     *          R.1               R.2   | <-- releases
     *  -  -  -  -  -  -  -  -  -  -    | <-- commits
     *
-    * in the updateMetrics method, it's checked if the given commit refers a bugTicket of "fix" type. */
-    public ReleaseFileManager computeMetrics(Release previousRelease, List<BugTicket> fixedBugs,
+    * in the updateMetrics method, it's checked if the given commit refers a bugTicket of "fix" type.
+    *
+    * Only this release's slot of each file is written, so different releases can be computed in parallel:
+    * the age, which depends on the files added by the previous releases, is completed by mergeAdditionDates. */
+    public ReleaseFileManager computeMetrics(Release previousRelease, Map<Commit, BugTicket> fixCommits,
                                              ReleaseFileManager files) throws IOException {
+        try (var engine = this.jgitManager.newDiffEngine()) {
+            return this.computeMetrics(engine, previousRelease, fixCommits, files);
+        }
+    }
+
+    private ReleaseFileManager computeMetrics(DiffEngine engine, Release previousRelease,
+                                              Map<Commit, BugTicket> fixCommits, ReleaseFileManager files)
+            throws IOException {
         Commit older;
         Commit newer;
         Integer i;
         String fileNameToSearch;
 
+        this.addedFiles = new LinkedHashMap<>();
+        this.touchedFiles = new LinkedHashMap<>();
+        this.touches = new LinkedHashMap<>();
 
         // computing loc
-        this.setEachFileLoc(files);
+        this.setEachFileLoc(engine.getReader(), files);
         for (i = -1; i < this.commits.size(); i++) {
             /*  index starts from -1 because this.commits.get(i) is assigned to the olderCommit.
              *   Starting from 0, i would miss differences between oldRelease commit and the first commit of the
@@ -126,9 +140,8 @@ public class Release extends Commit {
             older = olderAndNewer.get(0);
             newer = olderAndNewer.get(1);
 
-            List<DiffEntry> differences = this.jgitManager.listDifferencesBetweenTwoCommits(older.revCommit,
-                    newer.revCommit);
-            for (DiffEntry diff : differences) {
+            List<DiffStat> differences = this.jgitManager.getDiffStats(engine, older.revCommit, newer.revCommit);
+            for (DiffStat diff : differences) {
                 ReleaseFile rf;
                 // get the path file. If the file is added, get the newer path because the older doesn't exist
                 fileNameToSearch = diff.getChangeType().equals(DiffEntry.ChangeType.ADD) ?
@@ -137,18 +150,41 @@ public class Release extends Commit {
                 rf = files.findFileFromName(fileNameToSearch);
                 if (rf != null) {
                     if (diff.getChangeType().equals(DiffEntry.ChangeType.ADD))
-                        rf.setAdditionDate(newer.date);
-                    this.updateFileMetrics(rf, newer, diff, fixedBugs);
+                        this.addedFiles.merge(rf, newer.date, ReleaseFile::earliest);
+                    this.updateFileMetrics(rf, newer, diff, fixCommits);
                 }
             }
         }
         return files;
     }
 
+    public void replayFixes(Map<Commit, BugTicket> fixCommits) {
+        /*  nFix and the files touched by the bugs of a release restored by DatasetSnapshot: the other metrics
+         *  are restored as they are, these ones depend on the bugs retrieved by this run  */
+        for (Map.Entry<Commit, List<FileTouch>> commitTouches : this.touches.entrySet()) {
+            BugTicket bug = commitTouches.getKey().isFixCommit(fixCommits);
+            if (bug != null)
+                for (FileTouch touch : commitTouches.getValue())
+                    touch.updateFix(this.index, bug);
+        }
+    }
+
+    public void mergeAdditionDates() {
+        /*  must be invoked in release order, after computeMetrics: files have the addition dates found by the
+         *  previous releases only    */
+        for (Map.Entry<ReleaseFile, Date> touched : this.touchedFiles.entrySet())
+            touched.getKey().computeAge(this.index, this.date, touched.getValue());
+        for (Map.Entry<ReleaseFile, Date> added : this.addedFiles.entrySet())
+            added.getKey().setAdditionDate(added.getValue());
 
-    public void setAllFileBuggines(List<String> fileNames, List<ReleaseFile> files, Integer index){
+        this.addedFiles = null;
+        this.touchedFiles = null;
+    }
+
+
+    public void setAllFileBuggines(List<String> fileNames, ReleaseFileManager files, Integer index){
         for (String s : fileNames){
-            ReleaseFile file = this.findFromName(s, files);
+            ReleaseFile file = files.findFileFromPath(s);
             if (file != null)
                 file.updateBugginess(index);
         }
@@ -158,4 +194,31 @@ public class Release extends Commit {
         return index;
     }
 
+    public List<Commit> getCommits() {
+        return this.commits;
+    }
+
+    Map<Commit, List<FileTouch>> getTouches() {
+        return this.touches;
+    }
+
+    void setTouches(Map<Commit, List<FileTouch>> touches) {
+        this.touches = touches;
+    }
+
+    static class FileTouch {
+        final ReleaseFile file;
+        final DiffStat diff;
+
+        FileTouch(ReleaseFile file, DiffStat diff) {
+            this.file = file;
+            this.diff = diff;
+        }
+
+        void updateFix(Integer index, BugTicket bug) {
+            this.file.updateNfix(index);
+            bug.addFileTouched(this.diff);
+        }
+    }
+
 }
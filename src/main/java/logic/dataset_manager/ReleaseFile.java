@@ -22,33 +22,36 @@
 
 package logic.dataset_manager;
 
-import org.eclipse.jgit.lib.PersonIdent;
-import org.eclipse.jgit.revwalk.RevCommit;
 
-import java.io.IOException;
 import java.util.*;
 
 /* Trace file evolution across releases */
 public class ReleaseFile {
 
+    /*  metrics which don't depend on the bugs, in the order of getRestorableMetrics   */
+    private static final MetricTable.Column[] RESTORABLE = {MetricTable.Column.LOC, MetricTable.Column.NR,
+            MetricTable.Column.NAUTH, MetricTable.Column.LOC_ADDED, MetricTable.Column.MAX_LOC_ADDED,
+            MetricTable.Column.CHURN, MetricTable.Column.MAX_CHURN, MetricTable.Column.AGE};
+
     private Date additionDate;
     private JgitManager jgitManager;
 
     private String[] names;
-    private ArrayList<PersonIdent>[] editors;
-
-    //metrics
-    private Long[] loc; //lines of code
-    private Long[] nr;    //number of revisions that modifies this file
-    private Long[] nFix; //number of bug fixes on this file
-    private Long[] nAuth; //number of authors which commits this file
-    private Long[] locAdded; //sum over revision of LOC added
-    private Long[] maxLocAdded; //maximum over revisions of LOC added
-    private Long[] churn; //sum over revisions of added - deleted LOC
-    private Long[] maxChurn; //maximum churn over revisions
-    private Long[] age; //age of Release
-
-    private Boolean[] buggy;
+    /*  ids of the authors who edited this file in each release: see JgitManager.getAuthorId  */
+    private BitSet[] editors;
+
+    /*  metrics are stored in a row of a table shared by all the files:
+     *   LOC            lines of code
+     *   NR             number of revisions that modifies this file
+     *   NFIX           number of bug fixes on this file
+     *   NAUTH          number of authors which commits this file
+     *   LOC_ADDED      sum over revision of LOC added
+     *   MAX_LOC_ADDED  maximum over revisions of LOC added
+     *   CHURN          sum over revisions of added - deleted LOC
+     *   MAX_CHURN      maximum churn over revisions
+     *   AGE            age of Release  */
+    private MetricTable metrics;
+    private int row;
 
     public ReleaseFile(JgitManager manager, int numberOfRelease, int currRelease, String name) {
         this(manager,numberOfRelease,currRelease,null,name);
@@ -56,111 +59,92 @@ public class ReleaseFile {
 
 
     public ReleaseFile(JgitManager manager, int numberOfRelease, int currRelease, Date date, String name){
+        this(manager, new HeapMetricTable(numberOfRelease, 1), currRelease, date, name);
+    }
+
+    public ReleaseFile(JgitManager manager, MetricTable table, int currRelease, Date date, String name){
         this.jgitManager = manager;
         this.additionDate = date;
+        this.metrics = table;
+        this.row = table.addRow();
 
-        this.editors = new ArrayList[numberOfRelease];
-
-        this.loc = new Long[numberOfRelease];
+        var numberOfRelease = table.getNumOfReleases();
+        /*  editors are only needed by the releases which touch this file: sets are created on demand */
+        this.editors = new BitSet[numberOfRelease];
         this.names = new String[numberOfRelease];
-        this.nr = new Long[numberOfRelease];
-        this.nFix = new Long[numberOfRelease];
-        this.nAuth = new Long[numberOfRelease];
-        this.locAdded = new Long[numberOfRelease];
-        this.churn = new Long[numberOfRelease];
-        this.maxChurn = new Long[numberOfRelease];
-        this.maxLocAdded = new Long[numberOfRelease];
-        this.age = new Long[numberOfRelease];
-        this.buggy = new Boolean[numberOfRelease];
 
         int i;
-
-        for (i = 0; i < numberOfRelease; i++) {
-            this.editors[i] = new ArrayList<>();
-            this.loc[i] = (long) 0;
+        for (i = 0; i < numberOfRelease; i++)
             this.names[i] = i == currRelease - 1 ? name : "";
-            this.nr[i] = (long) 0;
-            this.nFix[i] = (long) 0;
-            this.nAuth[i] = (long) 0;
-            this.locAdded[i] = (long) 0;
-            this.maxLocAdded[i] = (long) 0;
-            this.churn[i] = (long) 0;
-            this.maxChurn[i] = (long) 0;
-            this.age[i] = (long) 0;
-            this.buggy[i] = Boolean.FALSE;
-        }
-    }
-
-    public Boolean isThisFile(String name){
-        /*  checks if this file has/had the given name */
-        Boolean b = Boolean.FALSE;
-        for (String s : this.names)
-            if (s.equals(name)){
-                b = Boolean.TRUE;
-                break;
-            }
-        return b;
     }
 
     public void addName(String name, int releaseIndex) {
         this.names[releaseIndex - 1] = name;
     }
 
-    public void computeLoc(RevCommit release, Integer index) throws IOException {
+    public void setLoc(Map<String, Integer> releaseLocs, Integer index) {
+        /*  releaseLocs stores the LOC of each file of the release: see JgitManager.getLocOfFilesInRelease */
         var currName = this.names[index - 1];
         if (!currName.isEmpty())
-            this.loc[index - 1] = (long) this.jgitManager.getLocFileInGivenRelease(this.names[index - 1], release);
+            this.metrics.set(MetricTable.Column.LOC, this.row, index - 1, releaseLocs.get(currName));
     }
 
     public void updateNumberOfRevision(Integer index) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty())
-            this.nr[index - 1]++;
+            this.metrics.add(MetricTable.Column.NR, this.row, index - 1, 1);
     }
 
-    public void addEditors(Integer index, PersonIdent authorIdent) {
+    public void addEditors(Integer index, int authorId) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty()) {
-            var list = this.editors[index - 1];
-            if (!list.contains(authorIdent))
-                list.add(authorIdent);
+            if (this.editors[index - 1] == null)
+                this.editors[index - 1] = new BitSet();
+            this.editors[index - 1].set(authorId);
         }
     }
 
     public void updateNauth(Integer index) {
         var currName = this.names[index - 1];
-        if (!currName.isEmpty())
-            this.nAuth[index - 1] = (long) this.editors[index - 1].size();
+        if (!currName.isEmpty()) {
+            var authors = this.editors[index - 1];
+            this.metrics.set(MetricTable.Column.NAUTH, this.row, index - 1,
+                    authors == null ? 0 : authors.cardinality());
+        }
     }
 
     public void updateLocAdded(Integer index, Integer linesAdded) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty()) {
-            this.locAdded[index - 1] += linesAdded;
-            if (this.maxLocAdded[index - 1] < linesAdded)
-                this.maxLocAdded[index - 1] = (long) linesAdded;
+            this.metrics.add(MetricTable.Column.LOC_ADDED, this.row, index - 1, linesAdded);
+            this.metrics.max(MetricTable.Column.MAX_LOC_ADDED, this.row, index - 1, linesAdded);
         }
     }
 
     public void updateChurn(Integer index, int i) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty()) {
-            this.churn[index - 1] += i;
-            if (this.maxChurn[index - 1] < i)
-                this.maxChurn[index - 1] = (long) i;
+            this.metrics.add(MetricTable.Column.CHURN, this.row, index - 1, i);
+            this.metrics.max(MetricTable.Column.MAX_CHURN, this.row, index - 1, i);
         }
     }
 
     public void updateNfix(Integer index) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty())
-            this.nFix[index - 1]++;
+            this.metrics.add(MetricTable.Column.NFIX, this.row, index - 1, 1);
     }
 
     public void computeAge(Integer index, Date releaseDate) {
+        this.computeAge(index, releaseDate, null);
+    }
+
+    public void computeAge(Integer index, Date releaseDate, Date additionInRelease) {
+        /*  additionInRelease is an addition date found by the given release and not merged yet: see
+         *  Release.computeMetrics  */
         var currName = this.names[index - 1];
         if (!currName.isEmpty()) {
-            Long fileTime = this.additionDate.getTime();
+            Long fileTime = ReleaseFile.earliest(this.additionDate, additionInRelease).getTime();
             Long releaseTime = releaseDate.getTime();
             Long diffTime = releaseTime - fileTime; //milliseconds
 
@@ -169,37 +153,39 @@ public class ReleaseFile {
              *  n / (1000 * 60 * 60) [h] = n / (1000 * 60 * 60 * 24) [d] =
              *  n / (1000 * 60 * 60 * 24 * 7) [w]
              * */
-            this.age[index - 1] = diffTime / (1000 * 60 * 60 * 24 * 7);
+            this.metrics.set(MetricTable.Column.AGE, this.row, index - 1, diffTime / (1000 * 60 * 60 * 24 * 7));
         }
     }
 
     public void updateBugginess(Integer index) {
         var currName = this.names[index - 1];
         if (!currName.isEmpty())
-            this.buggy[index - 1] = Boolean.TRUE;
+            this.metrics.setBuggy(this.row, index - 1);
     }
 
     public String[] getNames() {
         return this.names;
     }
 
-    public String getOutputLine(Integer index) {
-        var sb = new StringBuilder();
-        var currName = this.names[index - 1];
-        if (!currName.isEmpty()) {
-            sb.append(this.names[index - 1]).append(",")
-                    .append(this.loc[index - 1]).append(",")
-                    .append(this.nr[index - 1]).append(",")
-                    .append(this.nFix[index - 1]).append(",")
-                    .append(this.nAuth[index - 1]).append(",")
-                    .append(this.locAdded[index - 1]).append(",")
-                    .append(this.maxLocAdded[index - 1]).append(",")
-                    .append(this.churn[index - 1]).append(",")
-                    .append(this.maxChurn[index - 1]).append(",")
-                    .append(this.age[index - 1]).append(",");
-            sb.append(this.buggy[index - 1].equals(Boolean.TRUE) ? "Yes" : "No").append("\n");
-        }
-        return sb.toString();
+    int getRow() {
+        return this.row;
+    }
+
+    public long[] getRestorableMetrics(Integer index) {
+        /*  metrics of the given release which don't depend on the bugs: see DatasetSnapshot   */
+        var restorable = new long[RESTORABLE.length];
+        int m;
+        for (m = 0; m < RESTORABLE.length; m++)
+            restorable[m] = this.metrics.get(RESTORABLE[m], this.row, index - 1);
+        return restorable;
+    }
+
+    public void restoreMetrics(Integer index, String name, long[] restorable) {
+        /*  inverse of getRestorableMetrics: nFix and bugginess are left to the labeling of this run   */
+        this.names[index - 1] = name;
+        int m;
+        for (m = 0; m < RESTORABLE.length; m++)
+            this.metrics.set(RESTORABLE[m], this.row, index - 1, restorable[m]);
     }
 
     public Date getDate() {
@@ -207,11 +193,15 @@ public class ReleaseFile {
     }
 
     public void setAdditionDate(Date d){
-        if (d != null) {
-            if (this.additionDate == null)
-                this.additionDate = d;
-            else
-                this.additionDate = this.additionDate.before(d) ? this.additionDate : d;
-        }
+        this.additionDate = ReleaseFile.earliest(this.additionDate, d);
+    }
+
+    public static Date earliest(Date d1, Date d2){
+        /*  null stands for "no date"   */
+        if (d1 == null)
+            return d2;
+        if (d2 == null)
+            return d1;
+        return d1.before(d2) ? d1 : d2;
     }
 }
@@ -1,51 +1,153 @@
 package logic.dataset_manager;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ReleaseFileManager {
 
     private ArrayList<ReleaseFile> files;
     private Integer numOfRelease;
+    /*  metrics of all the files: each file is a row   */
+    private MetricTable metrics;
+    /*  positions of the files of each release (release index - 1), in position order  */
+    private int[][] releaseFiles;
+
+    /*  indexes over the names of this.files. Values are positions in this.files: when more than one file
+     *  matches, the one with the lowest position wins, as the linear scan used to do.
+     *  Class names are indexed while releases are walked, since the walk looks files up by class name: a name
+     *  replaced in a release slot has the class name of the one replacing it, so none is lost. Paths are
+     *  indexed once the walk is over, from the names the files keep, as the path scan matched only those.  */
+    private Map<String, Integer> pathIndex;
+    private Map<String, Integer> classNameIndex;
 
     public ReleaseFileManager(JgitManager jgitManager, List<Release> releases){
+        this(jgitManager, releases, new HeapMetricTable(releases.size()));
+    }
+
+    public ReleaseFileManager(JgitManager jgitManager, List<Release> releases, MetricTable metrics){
+        /*  metrics must be empty and have releases.size() releases  */
+        this.files = new ArrayList<>();
+        this.pathIndex = new HashMap<>();
+        this.classNameIndex = new HashMap<>();
+
+        this.numOfRelease = releases.size();
+        this.metrics = metrics;
+        this.addReleases(jgitManager, releases);
+        this.metrics.trimToSize();
+        this.indexFiles();
+    }
+
+    public ReleaseFileManager(JgitManager jgitManager, List<Release> releases, DatasetSnapshot snapshot,
+                              MetricTable metrics){
+        /*  the files of the releases stored by the snapshot are restored: only the other ones are read from
+         *  the repository. snapshot must be a prefix of releases: see DatasetSnapshot.isPrefixOf  */
         this.files = new ArrayList<>();
+        this.pathIndex = new HashMap<>();
+        this.classNameIndex = new HashMap<>();
 
         this.numOfRelease = releases.size();
+        this.metrics = metrics;
+        for (ReleaseFile file : snapshot.restoreFiles(jgitManager, this.metrics)) {
+            this.files.add(file);
+            for (String name : file.getNames())
+                if (!name.isEmpty())
+                    this.indexClassName(name, this.files.size() - 1);
+        }
+        snapshot.restoreTouches(releases, this.files);
+        this.addReleases(jgitManager, releases.subList(snapshot.getNumOfReleases(), releases.size()));
+        this.metrics.trimToSize();
+        this.indexFiles();
+    }
+
+    private void addReleases(JgitManager jgitManager, List<Release> releases){
         for (Release r : releases){
             var nameList = jgitManager.filesInRelease(r.revCommit);
             for (String name : nameList){
-                var stillExist = this.findFileFromName(name);
+                var stillExist = this.findPositionFromName(name);
                 if (stillExist != null)
-                    stillExist.addName(name, r.getIndex());
+                    this.addName(stillExist, name, r.getIndex());
                 else
-                    this.files.add(new ReleaseFile(jgitManager, this.numOfRelease, r.getIndex(),name));
+                    this.addFile(new ReleaseFile(jgitManager, this.metrics, r.getIndex(), null, name), name);
             }
         }
     }
 
-    public ReleaseFile findFileFromName(String name){
-        ReleaseFile releaseFile = null;
-        /*  getting last token of name:
-         *   /src/main/java/logic/dataset_manager/ProportionDataset.java -> /ProportionDataset.java   */
-        var classNames = name.split("/");
-        var className = "/" + classNames[classNames.length - 1];
-
+    private void indexFiles(){
+        /*  paths and files of each release, from the names the files keep after the walk  */
+        this.releaseFiles = new int[this.numOfRelease][];
+        var counts = new int[this.numOfRelease];
         int i;
-        for (ReleaseFile r : this.files) {
-            var names = r.getNames();
-            for (i = 0; i < this.numOfRelease && releaseFile == null; i++){
-                var currName = names[i];
-                if (currName.endsWith(className)){
-                    releaseFile = r;
-                    break;
+        for (ReleaseFile file : this.files) {
+            var names = file.getNames();
+            for (i = 0; i < this.numOfRelease; i++)
+                if (!names[i].isEmpty())
+                    counts[i]++;
+        }
+        for (i = 0; i < this.numOfRelease; i++)
+            this.releaseFiles[i] = new int[counts[i]];
+        Arrays.fill(counts, 0);
+        int position;
+        for (position = 0; position < this.files.size(); position++) {
+            var names = this.files.get(position).getNames();
+            for (i = 0; i < this.numOfRelease; i++)
+                if (!names[i].isEmpty()) {
+                    this.releaseFiles[i][counts[i]++] = position;
+                    this.pathIndex.putIfAbsent(names[i], position);
                 }
-            }
         }
-        return releaseFile;
+    }
+
+    private void addFile(ReleaseFile file, String name){
+        this.files.add(file);
+        this.indexClassName(name, this.files.size() - 1);
+    }
+
+    private void addName(Integer position, String name, int releaseIndex){
+        this.files.get(position).addName(name, releaseIndex);
+        this.indexClassName(name, position);
+    }
+
+    private void indexClassName(String name, Integer position){
+        /*  a name matches a class name only if it ends with "/" + class name: names without a separator
+         *  never matched, so they are not indexed   */
+        var separator = name.lastIndexOf('/');
+        if (separator >= 0)
+            this.classNameIndex.merge(name.substring(separator + 1), position, Math::min);
+    }
+
+    private ReleaseFile fromPosition(Integer position){
+        return position == null ? null : this.files.get(position);
+    }
+
+    private Integer findPositionFromName(String name){
+        /*  getting last token of name:
+         *   /src/main/java/logic/dataset_manager/ProportionDataset.java -> ProportionDataset.java   */
+        var classNames = name.split("/");
+        var className = classNames[classNames.length - 1];
+        return this.classNameIndex.get(className);
+    }
+
+    public ReleaseFile findFileFromName(String name){
+        return this.fromPosition(this.findPositionFromName(name));
+    }
+
+    public ReleaseFile findFileFromPath(String path){
+        /*  returns the file which has/had exactly the given path   */
+        return this.fromPosition(this.pathIndex.get(path));
     }
 
     public List<ReleaseFile> getFileList() {
         return this.files;
     }
+
+    public MetricTable getMetrics() {
+        return this.metrics;
+    }
+
+    public MetricCursor cursor(Integer releaseIndex) {
+        return new MetricCursor(this.files, this.releaseFiles[releaseIndex - 1], this.metrics, releaseIndex);
+    }
 }
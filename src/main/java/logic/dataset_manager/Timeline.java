@@ -0,0 +1,56 @@
+package logic.dataset_manager;
+
+import java.util.Date;
+import java.util.List;
+
+/*  Dates of a list of commits sorted by date, as epoch millis: positions in the timeline are positions in the
+ *  list, so a range of dates is found with two binary searches instead of a scan of the whole list.  */
+public class Timeline {
+
+    private final long[] times;
+
+    public Timeline(List<? extends Commit> sortedCommits) {
+        this.times = new long[sortedCommits.size()];
+        int i;
+        for (i = 0; i < this.times.length; i++)
+            this.times[i] = sortedCommits.get(i).date.getTime();
+    }
+
+    public int size() {
+        return this.times.length;
+    }
+
+    public long getTime(int position) {
+        return this.times[position];
+    }
+
+    public int lowerBound(Date date) {
+        /*  first position whose date is not before the given one (size() if there is none)    */
+        var time = date.getTime();
+        var low = 0;
+        var high = this.times.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (this.times[mid] < time)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    public int upperBound(Date date) {
+        /*  first position whose date is after the given one (size() if there is none)  */
+        var time = date.getTime();
+        var low = 0;
+        var high = this.times.length;
+        while (low < high) {
+            var mid = (low + high) >>> 1;
+            if (this.times[mid] <= time)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,13 @@
+package logic.enums;
+
+public enum FeaturesSelectionScope {
+    /*  the data the best first attributes are searched on: all the data, or just the training set of each step,
+        so that the testing release doesn't leak into the selection  */
+    TOTAL_DATA("total_data"),
+    TRAINING_PREFIX("training_prefix");
+
+    public final String scope;
+    FeaturesSelectionScope(String type){ this.scope = type; }
+
+    public String getType(){ return this.scope; }
+}
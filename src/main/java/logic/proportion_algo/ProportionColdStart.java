@@ -0,0 +1,37 @@
+package logic.proportion_algo;
+
+import logic.abstracts.AbstractProportion;
+import logic.dataset_manager.BugTicket;
+import logic.dataset_manager.ProportionDataset;
+
+public class ProportionColdStart extends AbstractProportion {
+    /*  P is not computed on the bugs of the project: it comes from the other projects (see ProportionTable), so
+        even the first releases are labeled with a meaningful value. Bugs with affected versions given by jira keep
+        them.   */
+
+    public ProportionColdStart(ProportionDataset d, int coldStartP){
+        super(d);
+        this.proportionP = coldStartP;
+    }
+
+    public static double computeProjectP(ProportionDataset d){
+        /*  the P of the project, to be stored in a ProportionTable: NaN if no bug can be used  */
+        double sum = 0;
+        var count = 0;
+        for (BugTicket b : d.getFixedBugs()){
+            if (AbstractProportion.isProportionBug(b)){
+                sum += AbstractProportion.proportionOf(b);
+                count++;
+            }
+        }
+        return count == 0 ? Double.NaN : sum / count;
+    }
+
+    public void computeProportionColdStart(){
+        for (BugTicket b : this.dataset.getFixedBugs()){
+            if (b.getAffectedVersions().isEmpty())
+                this.updateBugAV(b);
+        }
+        this.setDatasetBugginess();
+    }
+}
@@ -1,97 +1,142 @@
 package logic.proportion_algo;
 
+import logic.abstracts.AbstractProportion;
 import logic.dataset_manager.BugTicket;
 import logic.dataset_manager.ProportionDataset;
-import logic.dataset_manager.Release;
 import java.util.ArrayList;
 import java.util.List;
 
-public class ProportionIncrement {
+public class ProportionIncrement extends AbstractProportion {
+    /*  Releases are visited once, in order. As proportion increment wants, the bugginess of the index-th release
+        is predicted with a P computed on the bugs fixed in releases in [1, index] whose affected versions are
+        known: the ones given by jira, and the ones labeled in a previous release. A bug never leaves that set and
+        its fraction never changes, so each bug is added once.
 
-    Integer proportionP;
-    ProportionDataset dataset;
+        P must be the one the sum of the fractions in the order of the bugs gives: a bug labeled late may come
+        before bugs already summed, so the partial sum before each bug is kept and the sum is resumed from the
+        first bug added since the last one.
+
+        A bug without affected versions is labeled as soon as P has the sign of FV - OV: it waits in a list
+        for that sign. If FV is OV, or FV is the first release, no P can label it.   */
+
+    private List<BugTicket> bugs;
+
+    /*  by position in bugs: fraction of the bugs whose affected versions are known  */
+    private boolean[] known;
+    private double[] fractions;
+    private int numOfKnown;
+
+    /*  partialSums[p] is the sum of the fractions before p, up to summedUpTo  */
+    private double[] partialSums;
+    private int summedUpTo;
+    private int firstAdded;
+    private int lastKnown;
+
+    /*  bugs waiting for a positive P (FV after OV) or a negative one (FV before OV)  */
+    private List<Integer> waitingPositive;
+    private List<Integer> waitingNegative;
 
     public ProportionIncrement(ProportionDataset d){
-        this.dataset = d;
-        this.proportionP = 0;
+        super(d);
     }
 
-    private void computeInitialPvalue(List<BugTicket> bugs){
-        /* bugs is a the list of bug whose fixed version index is less than or equal a certain value
-        *  and AffectedVersion is not empty, info got by jira. This method computes P using jira info.  */
-        double numerator;
-        double denominator;
-        double fract;
-        double sum = 0;
-        for (BugTicket b : bugs){
-            numerator = (double) b.getFixedVersion().getIndex() - b.getInjectedVersion().getIndex();
-            denominator = (double) b.getFixedVersion().getIndex() - b.getOpeningVersion().getIndex();
-            assert denominator != 0;
-            fract = numerator / denominator;
-            sum += fract;
-        }
-        assert !bugs.isEmpty();
-        sum /= bugs.size();
-        this.proportionP = (int) Math.ceil(sum);
+    private void initialize(){
+        this.bugs = this.dataset.getFixedBugs();
+        var size = this.bugs.size();
+        this.known = new boolean[size];
+        this.fractions = new double[size];
+        this.numOfKnown = 0;
+        this.partialSums = new double[size + 1];
+        this.summedUpTo = 0;
+        this.firstAdded = size;
+        this.lastKnown = -1;
+        this.waitingPositive = new ArrayList<>();
+        this.waitingNegative = new ArrayList<>();
     }
 
-    private void computeProportion(Integer index){
-        /*  this method compute the P value of the first i releases: as proportion increment wants,
-        *   if i want to predict buggines of index-th release's class, i should use a P value computed
-        *   for fixed bugs in releases in [1, index].   */
-        List<BugTicket> bugs = this.dataset.getFixedBugs();
-
-        /* creating a list which contain only the bugs index whose FixedVersion is less than or equal to index  */
-        List<BugTicket> onlyRelativeBugs = new ArrayList<>();
-        for (BugTicket b : bugs){
-            if (b.getFixedVersion().getIndex() <= index && !b.getAffectedVersions().isEmpty() &&
-                    !b.getFixedVersion().getIndex().equals(b.getOpeningVersion().getIndex())) //because of proportion denominator
-                onlyRelativeBugs.add(b);
+    private List<List<Integer>> positionsByFixedVersion(){
+        /*  i-th element stores the positions of the bugs fixed in the i-th release, i in [1, size]  */
+        var numOfReleases = this.dataset.getNumOfReleases();
+        List<List<Integer>> positions = new ArrayList<>(numOfReleases + 1);
+        int i;
+        for (i = 0; i <= numOfReleases; i++)
+            positions.add(new ArrayList<>());
+        for (i = 0; i < this.bugs.size(); i++){
+            var fixedVersionIndex = this.bugs.get(i).getFixedVersion().getIndex();
+            if (fixedVersionIndex <= numOfReleases)
+                positions.get(fixedVersionIndex).add(i);
         }
-        /*  computing p */
-        this.computeInitialPvalue(onlyRelativeBugs);
+        return positions;
+    }
 
-        /*  updating all bugs AV    */
-        this.updateBugsAV(index);
+    private void addKnown(int position){
+        this.known[position] = true;
+        this.fractions[position] = AbstractProportion.proportionOf(this.bugs.get(position));
+        this.numOfKnown++;
+        this.firstAdded = Math.min(this.firstAdded, position);
+        this.lastKnown = Math.max(this.lastKnown, position);
+    }
 
+    private void addFixedBug(int position){
+        /*  the bug is fixed in the current release: it is known, it waits for a P, or nothing can be done   */
+        var b = this.bugs.get(position);
+        var fixedVersionIndex = b.getFixedVersion().getIndex();
+        var openingVersionIndex = b.getOpeningVersion().getIndex();
+        if (!b.getAffectedVersions().isEmpty()){
+            if (AbstractProportion.isProportionBug(b))
+                this.addKnown(position);
+        }
+        else if (fixedVersionIndex > 1 && fixedVersionIndex > openingVersionIndex)
+            this.waitingPositive.add(position);
+        else if (fixedVersionIndex > 1 && fixedVersionIndex < openingVersionIndex)
+            this.waitingNegative.add(position);
     }
 
-    private void updateBugsAV(int index) {
-        int injectedVersionIndex;
-        int fixedVersionIndex;
-        int openingVersionIndex;
-        int i;
-        List<Release> affectedVersions;
-        List<BugTicket> bugs = this.dataset.getFixedBugs();
-        for (BugTicket bug : bugs){
-            if (bug.getFixedVersion().getIndex() <= index && bug.getAffectedVersions().isEmpty()){
-                fixedVersionIndex = bug.getFixedVersion().getIndex();
-                openingVersionIndex = bug.getOpeningVersion().getIndex();
-                injectedVersionIndex = fixedVersionIndex - this.proportionP * (fixedVersionIndex - openingVersionIndex);
-                if (injectedVersionIndex <= 0) //proportion computation returns an older realease than the firstone: impossible
-                    injectedVersionIndex = 1;
-                for (i = injectedVersionIndex; i < fixedVersionIndex; i++) {
-                    affectedVersions = bug.getAffectedVersions();
-                    affectedVersions.add(this.dataset.getReleaseFromItsIndex(i));
-                    bug.setAffectedVersions(affectedVersions);
-                }
+    private void computeProportion(){
+        /*  the same additions, in the same order, of a sum over all the known bugs  */
+        double sum = 0;
+        if (this.numOfKnown > 0){
+            var from = Math.min(this.firstAdded, this.summedUpTo);
+            sum = this.partialSums[from];
+            int p;
+            for (p = from; p <= this.lastKnown; p++){
+                this.partialSums[p] = sum;
+                if (this.known[p])
+                    sum += this.fractions[p];
             }
+            this.partialSums[this.lastKnown + 1] = sum;
+            this.summedUpTo = this.lastKnown + 1;
+            this.firstAdded = this.bugs.size();
+        }
+        sum /= this.numOfKnown;
+        this.proportionP = (int) Math.ceil(sum);
+    }
+
+    private void labelWaitingBugs(List<Integer> waiting){
+        /*  each bug gets affected versions with the current P: it is known from the next release   */
+        for (Integer position : waiting){
+            this.updateBugAV(this.bugs.get(position));
+            this.addKnown(position);
         }
+        waiting.clear();
     }
 
     public void computeProportionIncrement(){
+        this.initialize();
+        var positions = this.positionsByFixedVersion();
         int i;
         for (i = 1; i <= this.dataset.getNumOfReleases(); i++){
             /*  this method uses releases indexing number: that's why for loop is between [1, size] */
-            this.computeProportion(i);
-        }
-        this.setDatasetBugginess();
-    }
+            for (Integer position : positions.get(i))
+                this.addFixedBug(position);
 
-    private void setDatasetBugginess() {
-        for (BugTicket b : this.dataset.getFixedBugs()) {
-            for (Release r : b.getAffectedVersions())
-                r.setAllFileBuggines(b.getTouchedFiles(), this.dataset.getFiles(), r.getIndex());
+            this.computeProportion();
+
+            if (this.proportionP > 0)
+                this.labelWaitingBugs(this.waitingPositive);
+            else if (this.proportionP < 0)
+                this.labelWaitingBugs(this.waitingNegative);
         }
+        this.setDatasetBugginess();
     }
 }
@@ -0,0 +1,96 @@
+package logic.proportion_algo;
+
+import logic.abstracts.AbstractProportion;
+import logic.dataset_manager.BugTicket;
+import logic.dataset_manager.ProportionDataset;
+
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProportionMovingWindow extends AbstractProportion {
+    /*  P is the mean over the last windowSize fixed bugs whose affected versions are given by jira. Releases are
+        visited in order: the bugs fixed in a release enter the window, the oldest ones leave it, and the running
+        sum of the window is updated for each of them instead of being computed again. Each fraction is a ratio
+        of integers: the sum is kept as an exact fraction, so no rounding drifts and P is its exact ceiling.
+        Bugs without affected versions are labeled with the P of their fixed version. If no bug has entered the
+        window yet, they wait for the first P.  */
+
+    public static final int DEFAULT_WINDOW_SIZE = 100;
+
+    private final int windowSize;
+    /*  {FV - IV, FV - OV} of each bug in the window, with a positive denominator   */
+    private final ArrayDeque<long[]> window;
+    /*  sum of the window, as sumNumerator / sumDenominator in lowest terms  */
+    private BigInteger sumNumerator;
+    private BigInteger sumDenominator;
+
+    public ProportionMovingWindow(ProportionDataset d, int windowSize){
+        super(d);
+        this.windowSize = windowSize;
+        this.window = new ArrayDeque<>(windowSize);
+        this.sumNumerator = BigInteger.ZERO;
+        this.sumDenominator = BigInteger.ONE;
+    }
+
+    private void enterWindow(BugTicket b){
+        long numerator = b.getFixedVersion().getIndex() - b.getInjectedVersion().getIndex();
+        long denominator = b.getFixedVersion().getIndex() - b.getOpeningVersion().getIndex();
+        if (denominator < 0){
+            numerator = -numerator;
+            denominator = -denominator;
+        }
+        this.window.addLast(new long[]{numerator, denominator});
+        this.addToSum(numerator, denominator);
+        if (this.window.size() > this.windowSize){
+            var oldest = this.window.removeFirst();
+            this.addToSum(-oldest[0], oldest[1]);
+        }
+    }
+
+    private void addToSum(long numerator, long denominator){
+        var d = BigInteger.valueOf(denominator);
+        var n = this.sumNumerator.multiply(d).add(BigInteger.valueOf(numerator).multiply(this.sumDenominator));
+        d = this.sumDenominator.multiply(d);
+        /*  d is never 0, so neither is gcd   */
+        var gcd = n.gcd(d);
+        this.sumNumerator = n.divide(gcd);
+        this.sumDenominator = d.divide(gcd);
+    }
+
+    private int computeP(){
+        /*  ceiling of sum / window size: the division truncates toward zero, that's the ceiling unless a
+            positive remainder is left  */
+        var divisor = this.sumDenominator.multiply(BigInteger.valueOf(this.window.size()));
+        var quotientAndRemainder = this.sumNumerator.divideAndRemainder(divisor);
+        var quotient = quotientAndRemainder[0];
+        if (quotientAndRemainder[1].signum() > 0)
+            quotient = quotient.add(BigInteger.ONE);
+        return quotient.intValueExact();
+    }
+
+    public void computeProportionMovingWindow(){
+        /*  bugs are sorted by fixed version (see ProportionDataset)   */
+        List<BugTicket> bugs = this.dataset.getFixedBugs();
+        List<BugTicket> unlabeled = new ArrayList<>();
+        var next = 0;
+        int i;
+        for (i = 1; i <= this.dataset.getNumOfReleases(); i++){
+            while (next < bugs.size() && bugs.get(next).getFixedVersion().getIndex() <= i){
+                var b = bugs.get(next++);
+                if (AbstractProportion.isProportionBug(b))
+                    this.enterWindow(b);
+                else if (b.getAffectedVersions().isEmpty())
+                    unlabeled.add(b);
+            }
+            if (!this.window.isEmpty()){
+                this.proportionP = this.computeP();
+                for (BugTicket b : unlabeled)
+                    this.updateBugAV(b);
+                unlabeled.clear();
+            }
+        }
+        this.setDatasetBugginess();
+    }
+}
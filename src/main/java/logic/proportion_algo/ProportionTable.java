@@ -0,0 +1,83 @@
+package logic.proportion_algo;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class ProportionTable {
+    /*  The P of each project: the mean of (FV - IV) / (FV - OV) over its bugs whose affected versions are given by
+        jira (see ProportionColdStart.computeProjectP). It is stored as a csv, one project for each line, so that
+        cold start reads it instead of building the dataset of every other project.  */
+
+    public static final String DEFAULT_FILE = "proportion_table.csv";
+    private static final String HEADER = "Project,P";
+
+    private final Map<String, Double> proportions;
+
+    public ProportionTable() {
+        this.proportions = new TreeMap<>();
+    }
+
+    public static ProportionTable load(File file) throws IOException {
+        var table = new ProportionTable();
+        try (var reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+            var line = reader.readLine();
+            if (line == null || !line.equals(HEADER))
+                throw new IOException("Not a proportion table: " + file.getPath());
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty())
+                    continue;
+                var fields = line.split(",");
+                if (fields.length != 2)
+                    throw new IOException("Malformed line in " + file.getPath() + ": " + line);
+                table.put(fields[0], Double.parseDouble(fields[1]));
+            }
+        }
+        return table;
+    }
+
+    public void store(File file) throws IOException {
+        try (var writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))) {
+            writer.write(HEADER);
+            writer.write('\n');
+            for (Map.Entry<String, Double> entry : this.proportions.entrySet()) {
+                writer.write(entry.getKey() + "," + entry.getValue());
+                writer.write('\n');
+            }
+        }
+    }
+
+    public synchronized void put(String project, double p) {
+        /*  project names are UPPERCASE, as in AbstractBean   */
+        this.proportions.put(project.toUpperCase(), p);
+    }
+
+    public synchronized Double get(String project) {
+        return this.proportions.get(project.toUpperCase());
+    }
+
+    public synchronized int size() {
+        return this.proportions.size();
+    }
+
+    public synchronized Integer computeColdStartP(String project) {
+        /*  ceil of the median P of the projects but the given one: null if there is no other project  */
+        List<Double> others = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : this.proportions.entrySet()) {
+            if (!entry.getKey().equals(project.toUpperCase()))
+                others.add(entry.getValue());
+        }
+        if (others.isEmpty())
+            return null;
+        Collections.sort(others);
+        var middle = others.size() / 2;
+        var median = others.size() % 2 == 1
+                ? others.get(middle)
+                : (others.get(middle - 1) + others.get(middle)) / 2;
+        return (int) Math.ceil(median);
+    }
+}
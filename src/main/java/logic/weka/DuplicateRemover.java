@@ -0,0 +1,49 @@
+package logic.weka;
+
+import weka.core.Instance;
+import weka.core.Instances;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+public class DuplicateRemover {
+    /*  Removes the duplicated instances in memory, as RemoveDuplicates does: two instances are duplicated if they
+        have the same values, class included. The first occurrence of each one is kept, in the original order.  */
+
+    private DuplicateRemover(){}
+
+    public static Instances removeDuplicated(Instances instances) {
+        var withoutDuplicated = new Instances(instances, instances.numInstances());
+        var seen = new HashSet<Values>(instances.numInstances() * 2);
+        for (Instance instance : instances) {
+            if (seen.add(new Values(instance.toDoubleArray())))
+                withoutDuplicated.add(instance);
+        }
+        withoutDuplicated.compactify();
+        return withoutDuplicated;
+    }
+
+    private static class Values {
+        private final double[] array;
+        private final int hash;
+
+        private Values(double[] array) {
+            this.array = array;
+            this.hash = Arrays.hashCode(array);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || this.getClass() != o.getClass())
+                return false;
+            return Arrays.equals(this.array, ((Values) o).array);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package logic.weka;
+
+import logic.bean.WekaConfigurationOutputBean;
+import logic.bean.WekaStepOutputBean;
+import logic.enums.CostSensitiveClassifierType;
+import logic.enums.FeaturesSelectionType;
+import logic.enums.SamplingType;
+import weka.classifiers.Evaluation;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class EvaluationEngine {
+    /*  Evaluates every configuration of a WekaManager in parallel: each (configuration, step, classifier) is a job
+        on a work stealing pool, with its own classifier and its own copy of the training and testing sets.
+        Results are collected in the order computeMetrics would produce them, configuration after configuration:
+        as there, a step is left out if one of its classifiers fails.  */
+
+    private final WekaManager wekaManager;
+    private final int workers;
+
+    public EvaluationEngine(WekaManager wekaManager, int workers) {
+        this.wekaManager = wekaManager;
+        this.workers = Math.max(1, workers);
+    }
+
+    public List<WekaConfigurationOutputBean> evaluateAll() throws Exception {
+        /*  configurations are in the order of the enums: features selection, then cost sensitive classifier, then
+            sampling    */
+        var pool = new ForkJoinPool(this.workers);
+        try {
+            List<PendingStep> pending = new ArrayList<>();
+            List<WekaConfigurationOutputBean> list = new ArrayList<>();
+            for (FeaturesSelectionType fs : FeaturesSelectionType.values()){
+                for (CostSensitiveClassifierType csc : CostSensitiveClassifierType.values()){
+                    for (SamplingType st : SamplingType.values()){
+                        var output = new WekaConfigurationOutputBean(fs, st, csc);
+                        for (WalkStep step : this.wekaManager.getSteps())
+                            pending.add(this.submitStep(pool, output, fs, csc, st, step));
+                        list.add(output);
+                    }
+                }
+            }
+
+            for (PendingStep step : pending)
+                step.collect();
+            return list;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private PendingStep submitStep(ForkJoinPool pool, WekaConfigurationOutputBean output, FeaturesSelectionType fs,
+                                   CostSensitiveClassifierType csc, SamplingType st, WalkStep step) throws Exception {
+        var stepOutput = this.wekaManager.createStepOutput(fs, step);
+        var training = step.getTrainingSet(fs);
+        var testing = step.getTestingSet(fs);
+        List<Future<Evaluation>> evaluations = new ArrayList<>();
+        for (var classifier : this.wekaManager.createClassifiers(fs, csc, st, step))
+            evaluations.add(pool.submit(() ->
+                    WekaManager.evaluate(classifier, new Instances(training), new Instances(testing))));
+        return new PendingStep(output, stepOutput, evaluations);
+    }
+
+    private static class PendingStep {
+        private final WekaConfigurationOutputBean output;
+        private final WekaStepOutputBean stepOutput;
+        private final List<Future<Evaluation>> evaluations;
+
+        private PendingStep(WekaConfigurationOutputBean output, WekaStepOutputBean stepOutput,
+                            List<Future<Evaluation>> evaluations) {
+            this.output = output;
+            this.stepOutput = stepOutput;
+            this.evaluations = evaluations;
+        }
+
+        private void collect() throws InterruptedException {
+            int j;
+            try {
+                for (j = 0; j < this.evaluations.size(); j++)
+                    this.stepOutput.setEvaluation(this.evaluations.get(j).get(), j);
+                this.output.appendStepEvaluation(this.stepOutput);
+            } catch (ExecutionException e) {
+                /* added to manage the SMOTE errors */
+                var logger = Logger.getLogger(EvaluationEngine.class.getName());
+                logger.log(Level.OFF, e.getCause().toString());
+            }
+        }
+    }
+}
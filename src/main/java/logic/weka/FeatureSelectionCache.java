@@ -0,0 +1,82 @@
+package logic.weka;
+
+import logic.enums.FeaturesSelectionScope;
+import weka.attributeSelection.AttributeSelection;
+import weka.attributeSelection.BestFirst;
+import weka.attributeSelection.CfsSubsetEval;
+import weka.core.Instances;
+import weka.filters.Filter;
+import weka.filters.unsupervised.attribute.Remove;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class FeatureSelectionCache {
+    /*  The attributes selected by CfsSubsetEval + BestFirst, searched once and shared by all the walk steps.
+        With TOTAL_DATA they are searched on the whole data, once. With TRAINING_PREFIX they are searched on the
+        training set of each step: steps with the same number of training instances share the search.  */
+
+    private final Instances totalData;
+    private final FeaturesSelectionScope scope;
+    private final Map<Integer, int[]> selections;
+    private final Map<Integer, Instances> selectedData;
+
+    public FeatureSelectionCache(Instances totalData, FeaturesSelectionScope scope) {
+        this.totalData = totalData;
+        this.scope = scope;
+        this.selections = new HashMap<>();
+        this.selectedData = new HashMap<>();
+    }
+
+    public FeaturesSelectionScope getScope() {
+        return this.scope;
+    }
+
+    public synchronized int[] getSelectedAttributes(int countTrainingInstances) throws Exception {
+        /*  indexes of the selected attributes, class included: countTrainingInstances is the number of the first
+            instances of totalData in the training set of the step  */
+        var prefix = this.prefixOf(countTrainingInstances);
+        var selected = this.selections.get(prefix);
+        if (selected == null) {
+            selected = this.searchAttributes(new Instances(this.totalData, 0, prefix));
+            this.selections.put(prefix, selected);
+        }
+        return selected;
+    }
+
+    public synchronized Instances applySelection(int countTrainingInstances) throws Exception {
+        /*  totalData with just the selected attributes: steps must not modify it, they share it  */
+        var attributes = this.getSelectedAttributes(countTrainingInstances);
+        var key = this.prefixOf(countTrainingInstances);
+        var selected = this.selectedData.get(key);
+        if (selected == null) {
+            var remove = new Remove();
+            remove.setAttributeIndicesArray(attributes);
+            remove.setInvertSelection(true);
+            remove.setInputFormat(this.totalData);
+            selected = Filter.useFilter(this.totalData, remove);
+            /*  a training prefix is used by one step only: keeping its data would just hold memory */
+            if (this.scope.equals(FeaturesSelectionScope.TOTAL_DATA))
+                this.selectedData.put(key, selected);
+        }
+        return selected;
+    }
+
+    private int prefixOf(int countTrainingInstances) {
+        /*  number of the first instances of totalData the attributes are searched on    */
+        if (this.scope.equals(FeaturesSelectionScope.TOTAL_DATA))
+            return this.totalData.numInstances();
+        return countTrainingInstances;
+    }
+
+    private int[] searchAttributes(Instances set) throws Exception {
+        if (set.classIndex() < 0)
+            set.setClassIndex(set.numAttributes() - 1);
+        //create evaluator and search algorithm objects
+        var selection = new AttributeSelection();
+        selection.setEvaluator(new CfsSubsetEval());
+        selection.setSearch(new BestFirst());
+        selection.SelectAttributes(set);
+        return selection.selectedAttributes();
+    }
+}
@@ -0,0 +1,48 @@
+package logic.weka;
+
+import logic.dataset_manager.MetricTable;
+import logic.dataset_manager.Release;
+import logic.dataset_manager.ReleaseFileManager;
+import weka.core.Attribute;
+import weka.core.DenseInstance;
+import weka.core.Instances;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class InstancesCreator {
+
+    /*  names of the dataset csv columns, in the order of MetricTable.Column    */
+    private static final String[] METRIC_NAMES = new String[]{"LOC", "NR", "NFix", "NAuth", "LOC_added",
+            "MAX_LOC_added", "Churn", "MAX_Churn", "Age"};
+
+    private InstancesCreator(){}
+
+    public static Instances createInstances(List<Release> releases, ReleaseFileManager files, String relationName) {
+        /*  the same instances CSVLoader reads from the dataset csv, without the file names: Version, the metrics
+            and Buggy, whose values are {Yes, No} as in the arff files created by ArffCreator.  */
+        var columns = MetricTable.Column.values();
+        var attributes = new ArrayList<Attribute>();
+        attributes.add(new Attribute("Version"));
+        for (String name : METRIC_NAMES)
+            attributes.add(new Attribute(name));
+        attributes.add(new Attribute("Buggy", Arrays.asList("Yes", "No")));
+
+        var instances = new Instances(relationName, attributes, 0);
+        instances.setClassIndex(attributes.size() - 1);
+        int i;
+        for (Release r : releases) {
+            var cursor = files.cursor(r.getIndex());
+            while (cursor.next()) {
+                var values = new double[attributes.size()];
+                values[0] = r.getIndex();
+                for (i = 0; i < columns.length; i++)
+                    values[i + 1] = cursor.get(columns[i]);
+                values[values.length - 1] = cursor.isBuggy() ? 0 : 1;
+                instances.add(new DenseInstance(1.0, values));
+            }
+        }
+        return instances;
+    }
+}
@@ -1,17 +1,10 @@
 package logic.weka;
 
+import logic.enums.FeaturesSelectionScope;
 import logic.enums.FeaturesSelectionType;
 import logic.exception.WalkStepFilterException;
-import weka.attributeSelection.BestFirst;
-import weka.attributeSelection.CfsSubsetEval;
 import weka.core.Instance;
 import weka.core.Instances;
-import weka.core.converters.ArffLoader;
-import weka.filters.Filter;
-import weka.filters.supervised.attribute.AttributeSelection;
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Paths;
 
 public class WalkStep {
 
@@ -35,7 +28,13 @@ public class WalkStep {
 
 
     public WalkStep(Instances totalData, int stepIndex) throws WalkStepFilterException {
-        /* step index is the index of the last release index in train set for this step. */
+        this(totalData, stepIndex, new FeatureSelectionCache(totalData, FeaturesSelectionScope.TOTAL_DATA));
+    }
+
+    public WalkStep(Instances totalData, int stepIndex, FeatureSelectionCache featureSelection)
+            throws WalkStepFilterException {
+        /* step index is the index of the last release index in train set for this step. featureSelection is shared
+           by all the steps of totalData: attributes are selected only once for each training prefix   */
         var counts = this.countTrainAndTestInstances(stepIndex, totalData);
         var countTrainingInstances = counts[0];
         var countTestingInstances = counts[1];
@@ -57,15 +56,15 @@ public class WalkStep {
         this.noTestInstance = yesNoNumber[1];
 
         try {
-            var totalDataFeatured = this.applyFeatureSelection(totalData);
+            var totalDataFeatured = featureSelection.applySelection(countTrainingInstances);
             var numAttrFiltered = totalDataFeatured.numAttributes();
 
             // create featured subsets:
             var featuredTrainWithDup = new Instances(totalDataFeatured, 0, countTrainingInstances);
             var featuredTestWithDup = new Instances(totalDataFeatured, countTrainingInstances, countTestingInstances);
 
-            this.featureSelectedTraining = this.removeDuplicated(featuredTrainWithDup);
-            this.featureSelectedTesting = this.removeDuplicated(featuredTestWithDup);
+            this.featureSelectedTraining = DuplicateRemover.removeDuplicated(featuredTrainWithDup);
+            this.featureSelectedTesting = DuplicateRemover.removeDuplicated(featuredTestWithDup);
 
             this.featureSelectedTraining.setClassIndex(numAttrFiltered - 1);
             this.featureSelectedTesting.setClassIndex(numAttrFiltered - 1);
@@ -116,26 +115,6 @@ public class WalkStep {
 
 
 
-    private Instances removeDuplicated(Instances featuredWithDup) throws Exception {
-        // create temp file
-        var currDir = Paths.get(".").toAbsolutePath().normalize().toFile();
-        var ext = ".arff";
-        var tmpFile = File.createTempFile("tmpArff", ext, currDir);
-
-        // write instances on tmpFile
-        ArffCreator.createArffWithoutDuplicated(tmpFile, featuredWithDup);
-
-        // reading instances without duplicated:
-        var arffLoader = new ArffLoader();
-        arffLoader.setSource(tmpFile);
-        var withoutDuplicated = arffLoader.getDataSet();
-
-        // removing temp file
-        Files.delete(tmpFile.toPath());
-
-        return withoutDuplicated;
-    }
-
     private int[] countTrainAndTestInstances(int stepIndex, Instances totalData){
         var counts = new int[2];
         int i;
@@ -158,27 +137,6 @@ public class WalkStep {
         return counts;
     }
 
-    private Instances applyFeatureSelection(Instances set) throws Exception {
-        Instances featuredSet;
-        //create AttributeSelection object
-        var filter = new AttributeSelection();
-        //create evaluator and search algorithm objects
-        var eval = new CfsSubsetEval();
-        var search = new BestFirst();
-
-        //set the filter to use the evaluator and search algorithm
-        filter.setEvaluator(eval);
-        filter.setSearch(search);
-
-        //specify the dataset
-        filter.setInputFormat(set);
-        //apply
-        featuredSet = Filter.useFilter(set, filter);
-
-        return featuredSet;
-    }
-
-
     public Instances getTrainingSet(FeaturesSelectionType fs) {
         if (fs.equals(FeaturesSelectionType.BEST_FIRST))
             return this.featureSelectedTraining;
@@ -3,8 +3,10 @@ package logic.weka;
 import logic.bean.WekaConfigurationOutputBean;
 import logic.bean.WekaStepOutputBean;
 import logic.enums.CostSensitiveClassifierType;
+import logic.enums.FeaturesSelectionScope;
 import logic.enums.FeaturesSelectionType;
 import logic.enums.SamplingType;
+import logic.exception.WalkStepFilterException;
 import logic.proportion_algo.ProportionIncrement;
 import org.decimal4j.util.DoubleRounder;
 import weka.classifiers.Classifier;
@@ -19,6 +21,7 @@ import weka.core.converters.CSVLoader;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -28,8 +31,13 @@ public class WekaManager {
     private ArrayList<Classifier> classifiers;
     private int numOfRelease;
     private Instances totalData;
+    private FeatureSelectionCache featureSelection;
 
     public WekaManager(File input, File arff) throws Exception {
+        this(input, arff, FeaturesSelectionScope.TOTAL_DATA);
+    }
+
+    public WekaManager(File input, File arff, FeaturesSelectionScope scope) throws Exception {
         this.steps = new ArrayList<>();
 
         // reading instances
@@ -41,16 +49,33 @@ public class WekaManager {
         arffLoader.setSource(arff);
         this.totalData = arffLoader.getDataSet();
 
+        this.initializeSteps(scope);
+    }
+
+    public WekaManager(Instances dataset) throws Exception {
+        this(dataset, FeaturesSelectionScope.TOTAL_DATA);
+    }
+
+    public WekaManager(Instances dataset, FeaturesSelectionScope scope) throws Exception {
+        /*  dataset is built in memory (see InstancesCreator): duplicated lines are removed without any arff */
+        this.steps = new ArrayList<>();
+        this.totalData = DuplicateRemover.removeDuplicated(dataset);
+
+        this.initializeSteps(scope);
+    }
+
+    private void initializeSteps(FeaturesSelectionScope scope) throws WalkStepFilterException {
+        /*  features are selected once (or once for each training set) and shared by the steps  */
+        this.featureSelection = new FeatureSelectionCache(this.totalData, scope);
         this.numOfRelease = this.totalData.numDistinctValues(0);
         int i;
         var numRelease = this.numOfRelease;
         for (i = 1; i < numRelease; i++) {
-            this.steps.add(new WalkStep(this.totalData, i));
+            this.steps.add(new WalkStep(this.totalData, i, this.featureSelection));
         }
 
         //classifiers
         this.initializeClassifiers();
-
     }
 
     private Instances readInputCsv(File inputCsv) throws IOException {
@@ -136,7 +161,6 @@ public class WekaManager {
                                                       SamplingType st) throws Exception {
 
 
-            var totalDataLen = this.getTotalDataLen();
             var output = new WekaConfigurationOutputBean(fs, st, csc);
 
         /*  feature selection is applied in walkStep: it keeps a train and a test for both cases: none and features
@@ -146,39 +170,18 @@ public class WekaManager {
 
             int i;
             int j = 0;
-            Instances trainingDataset = null;
             // steps cycle
             for (i = 0; i < this.numOfRelease - 1; i++) {
-                var stepOutput = new WekaStepOutputBean(this.classifiers.size());
-
                 var step = this.steps.get(i);
-                trainingDataset = step.getTrainingSet(fs);
+                var stepOutput = this.createStepOutput(fs, step);
+                var trainingDataset = step.getTrainingSet(fs);
                 var testingDataset = step.getTestingSet(fs);
-
-                var instancesInTraining = trainingDataset.numInstances();
-                var percentage = (double) instancesInTraining / totalDataLen;
-                stepOutput.setTrainingPercentage(DoubleRounder.round(percentage, 3));
-
-                var trainDefectNum = step.getPositivesTraining(fs);
-                percentage = (double) trainDefectNum / (trainDefectNum + step.getNegativesTraining(fs));
-                stepOutput.setDefectiveInTrainingPercentage(DoubleRounder.round(percentage, 3));
-
-                var testDefectNum = step.getPositivesTesting(fs);
-                percentage = (double) testDefectNum / (testDefectNum + step.getNegativesTesting(fs));
-                stepOutput.setDefectiveInTestingPercentage(DoubleRounder.round(percentage, 3));
-
-                //re-initialize cassifiers
-                this.initializeClassifiers();
-                this.applySampling(st, fs, this.steps.get(i));
-                this.applyCostSensitive(csc);
+                var stepClassifiers = this.createClassifiers(fs, csc, st, step);
 
                 try {
                     //now i need to train the classifier
-                    for (j = 0; j < this.classifiers.size(); j++) {
-                        var c = this.classifiers.get(j);
-                        c.buildClassifier(trainingDataset);
-                        var currEvaluation = new Evaluation(testingDataset);
-                        currEvaluation.evaluateModel(c, testingDataset);
+                    for (j = 0; j < stepClassifiers.size(); j++) {
+                        var currEvaluation = WekaManager.evaluate(stepClassifiers.get(j), trainingDataset, testingDataset);
                         stepOutput.setEvaluation(currEvaluation, j);
                     }
                     output.appendStepEvaluation(stepOutput);
@@ -192,6 +195,45 @@ public class WekaManager {
 
     }
 
+    List<WalkStep> getSteps() {
+        return this.steps;
+    }
+
+    WekaStepOutputBean createStepOutput(FeaturesSelectionType fs, WalkStep step) {
+        /*  the percentages of the step: evaluations are set once the classifiers are trained   */
+        var stepOutput = new WekaStepOutputBean(this.classifiers.size());
+        var trainingDataset = step.getTrainingSet(fs);
+
+        var instancesInTraining = trainingDataset.numInstances();
+        var percentage = (double) instancesInTraining / this.getTotalDataLen();
+        stepOutput.setTrainingPercentage(DoubleRounder.round(percentage, 3));
+
+        var trainDefectNum = step.getPositivesTraining(fs);
+        percentage = (double) trainDefectNum / (trainDefectNum + step.getNegativesTraining(fs));
+        stepOutput.setDefectiveInTrainingPercentage(DoubleRounder.round(percentage, 3));
+
+        var testDefectNum = step.getPositivesTesting(fs);
+        percentage = (double) testDefectNum / (testDefectNum + step.getNegativesTesting(fs));
+        stepOutput.setDefectiveInTestingPercentage(DoubleRounder.round(percentage, 3));
+        return stepOutput;
+    }
+
+    List<Classifier> createClassifiers(FeaturesSelectionType fs, CostSensitiveClassifierType csc, SamplingType st,
+                                       WalkStep step) throws Exception {
+        /*  new, untrained classifiers of the configuration, in the order of the output columns   */
+        this.initializeClassifiers();
+        this.applySampling(st, fs, step);
+        this.applyCostSensitive(csc);
+        return new ArrayList<>(this.classifiers);
+    }
+
+    static Evaluation evaluate(Classifier classifier, Instances training, Instances testing) throws Exception {
+        classifier.buildClassifier(training);
+        var evaluation = new Evaluation(testing);
+        evaluation.evaluateModel(classifier, testing);
+        return evaluation;
+    }
+
     private int getTotalDataLen(){
         return this.totalData.numInstances();
     }
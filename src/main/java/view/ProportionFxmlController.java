@@ -8,6 +8,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import logic.boundary.ProportionAnalisysBoundary;
 import logic.enums.ProportionAlgoOptions;
+import logic.proportion_algo.ProportionMovingWindow;
 
 public class ProportionFxmlController extends BasicPageFxmlController {
 
@@ -43,6 +44,8 @@ public class ProportionFxmlController extends BasicPageFxmlController {
                 this.repositoryLabel.getText(),
                 this.projectName.getText(),
                 this.proportionPossibilities.getValue());
+        if (this.windowPeriodValue.getValue() != null)
+            boundary.setMovingWindowSize(this.windowPeriodValue.getValue());
         this.job = new Task<Void>() {
             @Override
             protected Void call() throws Exception {
@@ -91,5 +94,6 @@ public class ProportionFxmlController extends BasicPageFxmlController {
         });
 
         SceneSwitcher.getInstance().initializeIntegerSpinner(this.windowPeriodValue);
+        this.windowPeriodValue.getValueFactory().setValue(ProportionMovingWindow.DEFAULT_WINDOW_SIZE);
     }
 }